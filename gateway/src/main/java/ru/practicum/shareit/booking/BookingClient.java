@@ -1,16 +1,20 @@
 package ru.practicum.shareit.booking;
 
+import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
@@ -19,11 +23,12 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         CloseableHttpClient serverHttpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
                         .build()
         );
     }
@@ -37,25 +42,51 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> approveAll(Long userId, BookingBatchRequestDto requestDto) {
+        return patch("/owner/batch", userId, requestDto);
+    }
+
     public ResponseEntity<Object> getBookingById(Long bookingId) {
         return get("/" + bookingId);
     }
 
-    public ResponseEntity<Object> getAllByBooker(Integer from, Integer size, BookingState state, Long userId) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getAllByBooker(Integer from, Integer size, BookingState state, String after,
+                                                 Long userId) {
+        return getPage("", from, size, state, after, userId);
+    }
+
+    public ResponseEntity<Object> getAllByOwner(Integer from, Integer size, BookingState state, String after,
+                                                Long userId) {
+        return getPage("/owner", from, size, state, after, userId);
     }
 
-    public ResponseEntity<Object> getAllByOwner(Integer from, Integer size, BookingState state, Long userId) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getSummaryByBooker(Long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getSummaryByOwner(Long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportByBooker(Long userId) {
+        return stream("/export", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportByOwner(Long userId) {
+        return stream("/owner/export", userId);
+    }
+
+    private ResponseEntity<Object> getPage(String path, Integer from, Integer size, BookingState state, String after,
+                                           Long userId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (after == null) {
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("after", after);
+        return get(path + "?state={state}&from={from}&size={size}&after={after}", userId, parameters);
     }
 }
@@ -4,12 +4,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.utils.Create;
 
@@ -37,6 +40,37 @@ public class BookingController {
         return bookingClient.approve(bookingId, isApproved, userId);
     }
 
+    @PatchMapping("/owner/batch")
+    public ResponseEntity<Object> approveAll(@RequestHeader(XSHARER) Long ownerId,
+                                             @Valid @RequestBody BookingBatchRequestDto requestDto) {
+        log.info("PATCH / bookings / owner / batch {}, ownerId={}", requestDto, ownerId);
+        return bookingClient.approveAll(ownerId, requestDto);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getSummaryByBooker(@RequestHeader(XSHARER) Long bookerId) {
+        log.info("Get booking summary, bookerId={}", bookerId);
+        return bookingClient.getSummaryByBooker(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getSummaryByOwner(@RequestHeader(XSHARER) Long ownerId) {
+        log.info("Get booking summary, ownerId={}", ownerId);
+        return bookingClient.getSummaryByOwner(ownerId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportByBooker(@RequestHeader(XSHARER) Long bookerId) {
+        log.info("Export bookings, bookerId={}", bookerId);
+        return bookingClient.exportByBooker(bookerId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader(XSHARER) Long ownerId) {
+        log.info("Export bookings, ownerId={}", ownerId);
+        return bookingClient.exportByOwner(ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@PathVariable Long bookingId) {
         log.info("Get booking {}", bookingId);
@@ -47,22 +81,24 @@ public class BookingController {
     public ResponseEntity<Object> getAllByBooker(@RequestHeader(XSHARER) Long bookerId,
                                                  @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                 @RequestParam(required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get booking with state {}, bookerId={}, from={}, size={}", stateParam, bookerId, from, size);
-        return bookingClient.getAllByBooker(from, size, state, bookerId);
+        return bookingClient.getAllByBooker(from, size, state, after, bookerId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByOwner(@RequestParam(defaultValue = "1") @PositiveOrZero Integer from,
+    public ResponseEntity<Object> getAllByOwner(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
                                                 @RequestParam(defaultValue = "10") @Positive Integer size,
                                                 @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                @RequestParam(required = false) String after,
                                                 @RequestHeader(XSHARER) Long ownerId) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("GET / ByOwner / {}", ownerId);
-        return bookingClient.getAllByOwner(from, size, state, ownerId);
+        return bookingClient.getAllByOwner(from, size, state, after, ownerId);
 
     }
 }
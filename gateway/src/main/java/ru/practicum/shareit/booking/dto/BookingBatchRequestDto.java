@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchRequestDto {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> bookingIds;
+
+    @NotNull
+    private Boolean approved;
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Общий для всех клиентов пул соединений с сервером. Запрос ждёт свободное соединение не дольше
+ * acquire-timeout, после чего клиент получает 503: этот пул и есть лимит одновременных запросов шлюза.
+ */
+@Configuration
+public class ServerClientConfig {
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(
+            @Value("${shareit-server.max-connections:50}") int maxConnections,
+            @Value("${shareit.concurrency.acquire-timeout:PT2S}") Duration acquireTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                        .build())
+                .build();
+    }
+}
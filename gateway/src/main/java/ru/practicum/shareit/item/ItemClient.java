@@ -1,7 +1,6 @@
 package ru.practicum.shareit.item;
 
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -14,6 +13,7 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -21,12 +21,13 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(createRestTemplate(serverUrl, builder));
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      CloseableHttpClient serverHttpClient) {
+        super(createRestTemplate(serverUrl, builder, serverHttpClient));
     }
 
-    private static RestTemplate createRestTemplate(String serverUrl, RestTemplateBuilder builder) {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
+    private static RestTemplate createRestTemplate(String serverUrl, RestTemplateBuilder builder,
+                                                   CloseableHttpClient httpClient) {
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
 
         return builder
@@ -64,6 +65,45 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getItemByFuzzySearch(Integer from, Integer size, String text, Integer fuzzy,
+                                                       long userId) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size,
+                "fuzzy", fuzzy
+        );
+        return get("/search?text={text}&from={from}&size={size}&fuzzy={fuzzy}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailableItemBySearch(Integer from, Integer size, String text,
+                                                           LocalDateTime start, LocalDateTime end, long userId) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size,
+                "start", start,
+                "end", end
+        );
+        return get("/search?text={text}&from={from}&size={size}&start={start}&end={end}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getSuggestions(String prefix, Integer size, long userId) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(long itemId, LocalDateTime from, LocalDateTime to, long userId) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
     public ResponseEntity<Object> saveNewComment(long itemId, CommentDtoRequest commentDto, long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
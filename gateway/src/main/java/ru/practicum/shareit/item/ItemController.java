@@ -2,19 +2,24 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import ru.practicum.shareit.exception.WrongDatesException;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.utils.Create;
 import ru.practicum.shareit.utils.Update;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 @Validated
@@ -59,14 +64,59 @@ public class ItemController {
     public ResponseEntity<Object> getItemBySearch(@RequestParam(defaultValue = "1") @PositiveOrZero Integer from,
                                                   @RequestParam(defaultValue = "10") @Positive Integer size,
                                                   @RequestParam String text,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime start,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime end,
+                                                  @RequestParam(required = false) @Min(1) @Max(2) Integer fuzzy,
                                                   @RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("GET / search / {}", text);
+        log.info("GET / search / {} / {} - {} / fuzzy {}", text, start, end, fuzzy);
+        if (start != null || end != null) {
+            if (start == null || end == null || !start.isBefore(end)) {
+                throw new WrongDatesException("Нужно указать начало и окончание периода, начало раньше окончания");
+            }
+            if (fuzzy != null) {
+                throw new IllegalArgumentException("Поиск с опечатками не совмещается с поиском по датам");
+            }
+        }
         if (text.isBlank()) {
             return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
         }
+        if (fuzzy != null) {
+            return itemClient.getItemByFuzzySearch(from, size, text, fuzzy, userId);
+        }
+        if (start != null) {
+            return itemClient.getAvailableItemBySearch(from, size, text, start, end, userId);
+        }
         return itemClient.getItemBySearch(from, size, text, userId);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> getSuggestions(@RequestParam String prefix,
+                                                 @RequestParam(defaultValue = "10") @Positive @Max(10) Integer size,
+                                                 @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("GET / suggest / {}", prefix);
+        if (prefix.isBlank()) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
+        }
+        return itemClient.getSuggestions(prefix, size, userId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @PathVariable long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("GET / items {} / availability / user {}", itemId, userId);
+        if (!from.isBefore(to)) {
+            throw new WrongDatesException("Начало периода должно быть раньше его окончания");
+        }
+        return itemClient.getAvailability(itemId, from, to, userId);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> saveNewComment(@PathVariable long itemId,
                                                  @Validated(Create.class) @RequestBody CommentDtoRequest commentDto,
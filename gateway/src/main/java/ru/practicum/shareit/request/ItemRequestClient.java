@@ -1,7 +1,6 @@
 package ru.practicum.shareit.request;
 
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -20,12 +19,13 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(createRestTemplate(serverUrl, builder));
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             CloseableHttpClient serverHttpClient) {
+        super(createRestTemplate(serverUrl, builder, serverHttpClient));
     }
 
-    private static RestTemplate createRestTemplate(String serverUrl, RestTemplateBuilder builder) {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
+    private static RestTemplate createRestTemplate(String serverUrl, RestTemplateBuilder builder,
+                                                   CloseableHttpClient httpClient) {
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
 
         return builder
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingBatchRequestDto;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingBatchRequestDtoTest {
+
+    private Validator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Test
+    void whenValidBatch_shouldPassValidation() {
+        BookingBatchRequestDto request = new BookingBatchRequestDto(List.of(1L, 2L), true);
+
+        assertTrue(validator.validate(request).isEmpty());
+    }
+
+    @Test
+    void whenIdsEmptyOrContainNull_shouldFailValidation() {
+        assertEquals(1, validator.validate(new BookingBatchRequestDto(List.of(), true)).size());
+        assertEquals(1, validator.validate(new BookingBatchRequestDto(Arrays.asList(1L, null), true)).size());
+    }
+
+    @Test
+    void whenDecisionIsNull_shouldFailValidation() {
+        assertEquals(1, validator.validate(new BookingBatchRequestDto(List.of(1L), null)).size());
+    }
+}
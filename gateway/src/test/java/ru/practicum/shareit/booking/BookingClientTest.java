@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BookingClientTest {
+    private MockRestServiceServer server;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void setUp() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        bookingClient = new BookingClient("http://server", new RestTemplateBuilder(customizer),
+                HttpClients.createDefault());
+        server = customizer.getServer();
+    }
+
+    @Test
+    void exportByBooker_shouldStreamServerBody() throws Exception {
+        String body = "{\"id\":2}\n{\"id\":1}\n";
+        server.expect(requestTo("http://server/bookings/export"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<StreamingResponseBody> response = bookingClient.exportByBooker(1L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(body, out.toString(StandardCharsets.UTF_8));
+        server.verify();
+    }
+
+    @Test
+    void exportByOwner_whenServerFails_thenPassErrorThrough() throws Exception {
+        String error = "{\"error\":\"Пользователь с Id 1 не найден\"}";
+        server.expect(requestTo("http://server/bookings/owner/export"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<StreamingResponseBody> response = bookingClient.exportByOwner(1L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(error, out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServerClientConfigTest {
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings/export", exchange -> {
+            byte[] body = "{\"id\":1}\n".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/x-ndjson");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        httpClient = new ServerClientConfig().serverHttpClient(1, Duration.ofMillis(100));
+        bookingClient = new BookingClient("http://localhost:" + server.getAddress().getPort(),
+                new RestTemplateBuilder(), httpClient);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void serverHttpClient_whenPoolBusyLongerThanAcquireTimeout_thenServiceUnavailable() throws Exception {
+        ResponseEntity<StreamingResponseBody> first = bookingClient.exportByBooker(1L);
+
+        ResourceAccessException e = assertThrows(ResourceAccessException.class,
+                () -> bookingClient.exportByBooker(1L));
+        ResponseEntity<ErrorResponse> response = new ErrorHandler().handleResourceAccess(e);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        first.getBody().writeTo(new ByteArrayOutputStream());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingClient.exportByBooker(1L).getBody().writeTo(out);
+        assertEquals("{\"id\":1}\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
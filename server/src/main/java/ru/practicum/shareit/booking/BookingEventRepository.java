@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO BookingEvent (bookingId, itemId, bookerId, ownerId, status, start, end, created) " +
+            "SELECT b.id, b.item.id, b.booker.id, b.owner.id, b.status, b.start, b.end, ?2 " +
+            "FROM Booking AS b " +
+            "WHERE b.id = ?1")
+    int append(Long bookingId, LocalDateTime created);
+
+    List<BookingEvent> findAllByIdGreaterThanOrderById(Long id, Limit limit);
+
+    List<BookingEvent> findAllByIdInOrderById(Collection<Long> ids);
+
+    List<BookingEvent> findAllByBookingIdOrderById(Long bookingId);
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Предикаты состояния бронирования для JPQL: period_contains, period_before, period_after
+ * и period_overlaps. В PostgreSQL они раскрываются в операторы над tsrange и используют GiST-индексы,
+ * в остальных СУБД (H2 в тестах) - в обычные сравнения дат.
+ */
+public class BookingPeriodFunctionContributor implements FunctionContributor {
+    private static final String PERIOD = "tsrange(?1, ?2, '[]')";
+    private static final String MOMENT = "cast(?3 as timestamp)";
+    private static final String HALF_OPEN_PERIOD = "tsrange(?1, ?2, '[)')";
+    private static final String HALF_OPEN_WINDOW = "tsrange(cast(?3 as timestamp), cast(?4 as timestamp), '[)')";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        if (functionContributions.getDialect() instanceof PostgreSQLDialect) {
+            registry.registerPattern("period_contains", "(" + PERIOD + " @> " + MOMENT + ")", booleanType);
+            registry.registerPattern("period_before",
+                    "(" + PERIOD + " << tsrange(" + MOMENT + ", " + MOMENT + ", '[]'))", booleanType);
+            registry.registerPattern("period_after",
+                    "(" + PERIOD + " >> tsrange(" + MOMENT + ", " + MOMENT + ", '[]'))", booleanType);
+            registry.registerPattern("period_overlaps", "(" + HALF_OPEN_PERIOD + " && " + HALF_OPEN_WINDOW + ")",
+                    booleanType);
+        } else {
+            registry.registerPattern("period_contains", "(?3 between ?1 and ?2)", booleanType);
+            registry.registerPattern("period_before", "(?2 < ?3)", booleanType);
+            registry.registerPattern("period_after", "(?1 > ?3)", booleanType);
+            registry.registerPattern("period_overlaps", "(?1 < ?4 and ?3 < ?2)", booleanType);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Запросы собираются из общих фрагментов: проекция в BookingDtoOut, отбор по арендатору или владельцу,
+ * состояние или статус, keyset-курсор и порядок от новых к старым.
+ */
+public interface BookingReadRepository extends Repository<Booking, Long> {
+    String SELECT_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDtoOut(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, u.id, u.name) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u ";
+    String SELECT_SUMMARY = "SELECT new ru.practicum.shareit.booking.dto.BookingSummaryDto(COUNT(b), " +
+            "COALESCE(SUM(CASE WHEN period_contains(b.start, b.end, current_timestamp) THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN period_before(b.start, b.end, current_timestamp) THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN period_after(b.start, b.end, current_timestamp) THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "THEN 1L ELSE 0L END), 0L), " +
+            "COALESCE(SUM(CASE WHEN b.status = ru.practicum.shareit.booking.model.BookingStatus.REJECTED " +
+            "THEN 1L ELSE 0L END), 0L)) " +
+            "FROM Booking AS b ";
+    String BY_BOOKER = "WHERE u.id = ?1 ";
+    String BY_OWNER = "WHERE b.owner.id = ?1 ";
+    String CURRENT = "AND b.archived = false AND period_contains(b.start, b.end, current_timestamp) ";
+    String PAST = "AND period_before(b.start, b.end, current_timestamp) ";
+    String FUTURE = "AND b.archived = false AND period_after(b.start, b.end, current_timestamp) ";
+    String WITH_STATUS = "AND b.status = ?2 ";
+    /**
+     * Keyset-страница: бронирования раньше последнего показанного (start, id).
+     */
+    String BEFORE_CURSOR = "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) ";
+    String WITH_STATUS_BEFORE_CURSOR = WITH_STATUS + "AND (b.start < ?3 OR (b.start = ?3 AND b.id < ?4)) ";
+    String NEWEST_FIRST = "ORDER BY b.start DESC, b.id DESC";
+
+    @Query(SELECT_DTO + BY_BOOKER)
+    List<BookingDtoOut> findAllByBookerId(Long bookerId, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_BOOKER + CURRENT)
+    List<BookingDtoOut> findAllByBookerIdAndStateCurrent(Long bookerId, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_BOOKER + PAST)
+    List<BookingDtoOut> findAllByBookerIdAndStatePast(Long bookerId, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_BOOKER + FUTURE)
+    List<BookingDtoOut> findAllByBookerIdAndStateFuture(Long bookerId, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_BOOKER + WITH_STATUS)
+    List<BookingDtoOut> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_OWNER)
+    List<BookingDtoOut> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_OWNER + CURRENT)
+    List<BookingDtoOut> findAllByOwnerIdAndStateCurrent(Long ownerId, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_OWNER + PAST)
+    List<BookingDtoOut> findAllByOwnerIdAndStatePast(Long ownerId, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_OWNER + FUTURE)
+    List<BookingDtoOut> findAllByOwnerIdAndStateFuture(Long ownerId, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_OWNER + WITH_STATUS)
+    List<BookingDtoOut> findAllByOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query(SELECT_DTO + BY_BOOKER + BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByBookerIdAfter(Long bookerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_BOOKER + CURRENT + BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByBookerIdAndStateCurrentAfter(Long bookerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_BOOKER + PAST + BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByBookerIdAndStatePastAfter(Long bookerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_BOOKER + FUTURE + BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByBookerIdAndStateFutureAfter(Long bookerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_BOOKER + WITH_STATUS_BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByBookerIdAndStatusAfter(Long bookerId, BookingStatus status, LocalDateTime start,
+                                                         Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_OWNER + BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByOwnerIdAfter(Long ownerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_OWNER + CURRENT + BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByOwnerIdAndStateCurrentAfter(Long ownerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_OWNER + PAST + BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByOwnerIdAndStatePastAfter(Long ownerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_OWNER + FUTURE + BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByOwnerIdAndStateFutureAfter(Long ownerId, LocalDateTime start, Long id, Limit limit);
+
+    @Query(SELECT_DTO + BY_OWNER + WITH_STATUS_BEFORE_CURSOR + NEWEST_FIRST)
+    List<BookingDtoOut> findAllByOwnerIdAndStatusAfter(Long ownerId, BookingStatus status, LocalDateTime start,
+                                                        Long id, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE b.booker.id = ?1")
+    BookingSummaryDto summarizeByBookerId(Long bookerId);
+
+    @Query(SELECT_SUMMARY + "WHERE b.owner.id = ?1")
+    BookingSummaryDto summarizeByOwnerId(Long ownerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + BY_BOOKER + NEWEST_FIRST)
+    Stream<BookingDtoOut> streamAllByBookerId(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + BY_OWNER + NEWEST_FIRST)
+    Stream<BookingDtoOut> streamAllByOwnerId(Long ownerId);
+}
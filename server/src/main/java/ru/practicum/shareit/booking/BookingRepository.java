@@ -1,60 +1,31 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking as b " +
-            "WHERE b.booker.id = ?1 " +
-            "AND current_timestamp BETWEEN b.start AND b.end")
-    List<Booking> findAllByBookerIdAndStateCurrent(Long bookerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking as b " +
-            "WHERE b.booker.id = ?1 " +
-            "AND current_timestamp > b.end")
-    List<Booking> findAllByBookerIdAndStatePast(Long bookerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking as b " +
-            "WHERE b.booker.id = ?1 " +
-            "AND current_timestamp < b.start")
-    List<Booking> findAllByBookerIdAndStateFuture(Long bookerId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
-
-    @Query("SELECT b FROM Booking AS b " +
-            "WHERE b.item.owner.id = ?1")
-    List<Booking> findAllByOwnerId(Long ownerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking AS b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND current_timestamp BETWEEN b.start AND b.end")
-    List<Booking> findAllByOwnerIdAndStateCurrent(Long ownerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking AS b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND current_timestamp > b.end")
-    List<Booking> findAllByOwnerIdAndStatePast(Long ownerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking AS b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND current_timestamp < b.start")
-    List<Booking> findAllByOwnerIdAndStateFuture(Long ownerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking AS b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND b.status = ?2")
-    List<Booking> findAllByOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
     Optional<Booking> findFirstByItemIdAndStartLessThanEqualAndStatus(Long itemId, LocalDateTime localDateTime,
                                                                       BookingStatus status, Sort end);
@@ -69,4 +40,57 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                                      BookingStatus approved, Sort end);
 
     Boolean existsByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime localDateTime);
+
+    List<Booking> findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(Long itemId,
+                                                                        Collection<BookingStatus> statuses,
+                                                                        LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingStatusView(b.id, b.item.id, b.owner.id, b.start, " +
+            "b.end, b.status) " +
+            "FROM Booking AS b " +
+            "WHERE b.id IN ?1")
+    List<BookingStatusView> findStatusViewsByIdIn(Collection<Long> ids);
+
+    /**
+     * Блокирует ожидающие решения бронирования владельца. После ожидания блокировки условие проверяется
+     * заново, поэтому бронирования, решённые параллельной транзакцией, в ответ не попадают. Строки
+     * блокируются по возрастанию номера, чтобы встречные пакеты не ждали друг друга по кругу.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking AS b " +
+            "WHERE b.id IN ?1 " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.owner.id = ?2 " +
+            "ORDER BY b.id")
+    List<Long> findWaitingIdsByOwnerForUpdate(Collection<Long> ids, Long ownerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.status = ?3 " +
+            "WHERE b.id IN ?1 " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.owner.id = ?2")
+    int updateWaitingStatusByOwner(Collection<Long> ids, Long ownerId, BookingStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingStatusView(b.id, b.item.id, b.owner.id, b.start, " +
+            "b.end, b.status) " +
+            "FROM Booking AS b " +
+            "WHERE b.status IN ?1 " +
+            "AND b.end > ?2 " +
+            "AND b.archived = false")
+    Stream<BookingStatusView> streamStatusViewsByStatusInAndEndAfter(Collection<BookingStatus> statuses,
+                                                                     LocalDateTime end);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.status = ru.practicum.shareit.booking.model.BookingStatus.REJECTED " +
+            "WHERE b.id = ?1 " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING")
+    int rejectIfWaiting(Long id);
+
+    @Query("SELECT b.id FROM Booking AS b WHERE b.archived = false AND b.end < ?1")
+    List<Long> findIdsToArchive(LocalDateTime horizon, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.archived = true WHERE b.id IN ?1 AND b.archived = false")
+    int archiveByIdIn(Collection<Long> ids);
 }
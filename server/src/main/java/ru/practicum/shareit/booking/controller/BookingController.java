@@ -2,10 +2,18 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoIn;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoOut;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.utils.Create;
 
@@ -17,15 +25,50 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
     private static final String XSHARER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
 
     @GetMapping
-    public List<BookingDtoOut> getAllByBooker(@RequestParam(defaultValue = "1") Integer from,
-                                              @RequestParam(defaultValue = "10") Integer size,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                              @RequestHeader(XSHARER) Long bookerId) {
+    public ResponseEntity<List<BookingDtoOut>> getAllByBooker(@RequestParam(defaultValue = "0") Integer from,
+                                                              @RequestParam(defaultValue = "10") Integer size,
+                                                              @RequestParam(name = "state", defaultValue = "ALL")
+                                                              String state,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestHeader(XSHARER) Long bookerId) {
         log.info("GET / ByBooker {}", bookerId);
-        return bookingService.getAllByBooker(from, size, state, bookerId);
+        List<BookingDtoOut> bookings = after == null
+                ? bookingService.getAllByBooker(from, size, state, bookerId)
+                : bookingService.getAllByBookerAfter(after, size, state, bookerId);
+        return withNextCursor(bookings, size);
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getSummaryByBooker(@RequestHeader(XSHARER) Long bookerId) {
+        log.info("GET / bookings / summary {}", bookerId);
+        return bookingService.getSummaryByBooker(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getSummaryByOwner(@RequestHeader(XSHARER) Long ownerId) {
+        log.info("GET / bookings / owner / summary {}", ownerId);
+        return bookingService.getSummaryByOwner(ownerId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportByBooker(@RequestHeader(XSHARER) Long bookerId) {
+        log.info("GET / bookings / export {}", bookerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExportService.exportByBooker(bookerId));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader(XSHARER) Long ownerId) {
+        log.info("GET / bookings / owner / export {}", ownerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExportService.exportByOwner(ownerId));
     }
 
     @GetMapping("/{bookingId}")
@@ -35,12 +78,17 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOut> getAllByOwner(@RequestParam(defaultValue = "1") Integer from,
-                                             @RequestParam(defaultValue = "10") Integer size,
-                                             @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                             @RequestHeader(XSHARER) Long ownerId) {
+    public ResponseEntity<List<BookingDtoOut>> getAllByOwner(@RequestParam(defaultValue = "0") Integer from,
+                                                             @RequestParam(defaultValue = "10") Integer size,
+                                                             @RequestParam(name = "state", defaultValue = "ALL")
+                                                             String state,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestHeader(XSHARER) Long ownerId) {
         log.info("GET / ByOwner / {}", ownerId);
-        return bookingService.getAllByOwner(from, size, state, ownerId);
+        List<BookingDtoOut> bookings = after == null
+                ? bookingService.getAllByOwner(from, size, state, ownerId)
+                : bookingService.getAllByOwnerAfter(after, size, state, ownerId);
+        return withNextCursor(bookings, size);
     }
 
     @PostMapping
@@ -56,4 +104,19 @@ public class BookingController {
         log.info("PATCH / bookings / {}", bookingId);
         return bookingService.approved(bookingId, isApprove, userId);
     }
+
+    @PatchMapping("/owner/batch")
+    public List<BookingBatchDtoOut> approveAll(@RequestBody BookingBatchDtoIn batchDtoIn,
+                                               @RequestHeader(XSHARER) Long ownerId) {
+        log.info("PATCH / bookings / owner / batch {}", ownerId);
+        return bookingService.approveAll(batchDtoIn, ownerId);
+    }
+
+    private ResponseEntity<List<BookingDtoOut>> withNextCursor(List<BookingDtoOut> bookings, Integer size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        String nextCursor = BookingCursor.of(bookings.get(bookings.size() - 1)).encode();
+        return ResponseEntity.ok().header(NEXT_CURSOR, nextCursor).body(bookings);
+    }
 }
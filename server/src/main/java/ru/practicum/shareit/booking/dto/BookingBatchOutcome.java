@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.dto;
+
+public enum BookingBatchOutcome {
+    UPDATED,
+    NOT_FOUND,
+    NOT_OWNER,
+    ALREADY_DECIDED
+}
@@ -19,4 +19,9 @@ public class BookingDtoOut {
     private ItemDto item;
     private UserDtoShort booker;
     private BookingStatus status;
+
+    public BookingDtoOut(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                         Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, start, end, new ItemDto(itemId, itemName), new UserDtoShort(bookerId, bookerName), status);
+    }
 }
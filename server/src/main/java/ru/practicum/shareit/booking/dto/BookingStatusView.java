@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingStatusView(Long id, Long itemId, Long ownerId, LocalDateTime start, LocalDateTime end,
+                                BookingStatus status) {
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.event;
+
+import java.time.LocalDateTime;
+
+public record BookingEndedEvent(Long bookingId,
+                                Long itemId,
+                                LocalDateTime end) {
+}
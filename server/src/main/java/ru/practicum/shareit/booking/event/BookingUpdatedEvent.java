@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingUpdatedEvent(Long bookingId,
+                                  Long itemId,
+                                  LocalDateTime start,
+                                  LocalDateTime end,
+                                  BookingStatus status) {
+}
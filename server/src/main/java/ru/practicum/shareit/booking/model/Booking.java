@@ -8,17 +8,26 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "bookings_booker_start_idx", columnList = "booker_id, start_booking DESC, id DESC"),
+        @Index(name = "bookings_booker_status_start_idx",
+                columnList = "booker_id, status, start_booking DESC, id DESC"),
+        @Index(name = "bookings_item_status_start_idx", columnList = "item_id, status, start_booking"),
+        @Index(name = "bookings_booker_item_end_idx", columnList = "booker_id, item_id, end_booking"),
+        @Index(name = "bookings_owner_start_idx", columnList = "owner_id, start_booking DESC, id DESC"),
+        @Index(name = "bookings_owner_status_start_idx",
+                columnList = "owner_id, status, start_booking DESC, id DESC")
+})
 @Getter
 @Setter
 @ToString
-@EqualsAndHashCode
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_id_seq")
+    @SequenceGenerator(name = "bookings_id_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_booking")
@@ -27,14 +36,53 @@ public class Booking {
     @Column(name = "end_booking")
     private LocalDateTime end;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     private User booker;
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    /**
+     * Копия владельца вещи, чтобы запросы владельца не соединялись с items.
+     */
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id")
+    private User owner;
+
+    @Column(nullable = false)
+    private boolean archived;
+
+    @PrePersist
+    private void fillOwner() {
+        if (owner == null && item != null) {
+            owner = item.getOwner();
+        }
+    }
+
+    /**
+     * Равенство по id: связи ленивые, а Hibernate может подставить вместо бронирования его прокси.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Booking other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Booking.class.hashCode();
+    }
 }
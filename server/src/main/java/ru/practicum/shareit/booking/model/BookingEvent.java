@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала изменений бронирования: состояние бронирования сразу после изменения.
+ * Журнал только дополняется. Идентификатор выдаётся базой без предвыборки, поэтому порядок
+ * записей совпадает с порядком вставки.
+ */
+@Entity
+@Table(name = "booking_events", indexes = {
+        @Index(name = "booking_events_booking_idx", columnList = "booking_id")
+})
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "booker_id", nullable = false)
+    private Long bookerId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Column(name = "start_booking", nullable = false)
+    private LocalDateTime start;
+
+    @Column(name = "end_booking", nullable = false)
+    private LocalDateTime end;
+
+    @Column(nullable = false)
+    private LocalDateTime created;
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Обслуживает секции бронирований: заранее создаёт месячные секции горячей части и переносит
+ * бронирования, завершившиеся раньше горизонта, в архив. Секции есть только в PostgreSQL,
+ * в остальных СУБД перенос сводится к установке флага archived.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingArchiver {
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int batchSize;
+    private final int monthsAhead;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.booking.archive.horizon:P365D}") Duration horizon,
+                           @Value("${shareit.booking.archive.batch-size:1000}") int batchSize,
+                           @Value("${shareit.booking.archive.months-ahead:3}") int monthsAhead) {
+        this.bookingRepository = bookingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.archive.cron:0 30 3 * * *}")
+    public void maintain() {
+        createPartitions(YearMonth.now());
+        archive(LocalDateTime.now().minus(horizon));
+    }
+
+    public int archive(LocalDateTime before) {
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<Long> ids = bookingRepository.findIdsToArchive(before, Limit.of(batchSize));
+                return ids.isEmpty() ? 0 : bookingRepository.archiveByIdIn(ids);
+            });
+            archived += moved;
+        } while (moved == batchSize);
+        log.info("Перенесено в архив бронирований, завершившихся до {}: {}", before, archived);
+        return archived;
+    }
+
+    /**
+     * Создаёт секции текущего и следующих months-ahead месяцев. Бронирования, кончающиеся позже, попадают
+     * в секцию по умолчанию, а PostgreSQL не даст подключить секцию, пока такие строки лежат в ней.
+     * Поэтому секция собирается отдельной таблицей, строки её месяца перекладываются в неё из секции
+     * по умолчанию и она подключается - всё в одной транзакции. На время переноса выставляется
+     * shareit.partition_move, чтобы триггеры bookings не приняли удаление из секции по умолчанию
+     * за удаление бронирования. Ошибка прерывает обслуживание.
+     */
+    private void createPartitions(YearMonth current) {
+        if (!isPartitioned()) {
+            log.debug("Таблица бронирований не секционирована, секции не создаются");
+            return;
+        }
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "bookings_hot_" + month.format(PARTITION_SUFFIX);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL",
+                        Boolean.class, name))) {
+                    return null;
+                }
+                jdbcTemplate.queryForObject("SELECT set_config('shareit.partition_move', 'on', true)", String.class);
+                jdbcTemplate.execute("LOCK TABLE bookings_hot IN ACCESS EXCLUSIVE MODE");
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE bookings_hot INCLUDING DEFAULTS)");
+                int count = jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM bookings_hot_default " +
+                        "WHERE end_booking >= ?::timestamp AND end_booking < ?::timestamp", from, to);
+                jdbcTemplate.update("DELETE FROM bookings_hot_default " +
+                        "WHERE end_booking >= ?::timestamp AND end_booking < ?::timestamp", from, to);
+                jdbcTemplate.execute("ALTER TABLE bookings_hot ATTACH PARTITION " + name +
+                        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                return count;
+            });
+            if (moved != null) {
+                log.info("Создана секция {}, перенесено из секции по умолчанию бронирований: {}", name, moved);
+            }
+        } catch (DataAccessException e) {
+            log.error("Не удалось создать секцию {}", name, e);
+            throw e;
+        }
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())))
+                && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass('bookings_hot') IS NOT NULL", Boolean.class));
+    }
+}
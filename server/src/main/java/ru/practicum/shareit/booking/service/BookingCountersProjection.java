@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Сводки бронирований пользователей, которые ведутся по журналу вместо запроса к bookings.
+ * Переходы FUTURE - CURRENT - PAST не порождают событий, поэтому моменты начала и окончания
+ * бронирований лежат в очереди и разбираются при каждом продвижении времени.
+ * События приходят только для бронирований в статусе WAITING, поэтому завершённое бронирование с итоговым
+ * статусом больше не меняется: оно остаётся в счётчиках, а его состояние забывается.
+ * Смена владельца вещи триггером items_owner_sync в журнал не попадает, и сводки владельцев её не учитывают.
+ */
+@Component
+public class BookingCountersProjection implements BookingProjection {
+    private final Map<Long, Tracked> bookings = new HashMap<>();
+    private final Map<Long, Counters> byBooker = new HashMap<>();
+    private final Map<Long, Counters> byOwner = new HashMap<>();
+    private final PriorityQueue<Transition> transitions = new PriorityQueue<>();
+    private LocalDateTime clock = LocalDateTime.now();
+    private volatile boolean ready;
+
+    @Override
+    public synchronized void apply(BookingEvent event) {
+        Tracked tracked = bookings.get(event.getBookingId());
+        if (tracked == null) {
+            tracked = new Tracked(event.getBookingId(), event.getBookerId(), event.getOwnerId(), event.getStart(),
+                    event.getEnd(), event.getStatus(), phaseOf(event.getStart(), event.getEnd()));
+            bookings.put(tracked.id, tracked);
+            add(tracked, 1);
+            schedule(tracked);
+        } else if (tracked.status != event.getStatus()) {
+            add(tracked, -1);
+            tracked.status = event.getStatus();
+            add(tracked, 1);
+        }
+        forgetIfSettled(tracked);
+    }
+
+    @Override
+    public synchronized void advance(LocalDateTime now) {
+        clock = now;
+        while (!transitions.isEmpty() && !transitions.peek().at.isAfter(now)) {
+            Tracked tracked = bookings.get(transitions.poll().bookingId);
+            Phase phase = phaseOf(tracked.start, tracked.end);
+            if (phase != tracked.phase) {
+                add(tracked, -1);
+                tracked.phase = phase;
+                add(tracked, 1);
+            }
+            schedule(tracked);
+            forgetIfSettled(tracked);
+        }
+    }
+
+    @Override
+    public void onCaughtUp() {
+        ready = true;
+    }
+
+    /**
+     * Пусто, пока журнал не прочитан до конца.
+     */
+    public synchronized Optional<BookingSummaryDto> getByBooker(Long bookerId) {
+        return ready ? Optional.of(byBooker.getOrDefault(bookerId, new Counters()).toDto()) : Optional.empty();
+    }
+
+    public synchronized Optional<BookingSummaryDto> getByOwner(Long ownerId) {
+        return ready ? Optional.of(byOwner.getOrDefault(ownerId, new Counters()).toDto()) : Optional.empty();
+    }
+
+    public synchronized int getTrackedCount() {
+        return bookings.size();
+    }
+
+    private void forgetIfSettled(Tracked tracked) {
+        if (tracked.phase == Phase.PAST && tracked.status != BookingStatus.WAITING) {
+            bookings.remove(tracked.id);
+        }
+    }
+
+    private void add(Tracked tracked, int delta) {
+        byBooker.computeIfAbsent(tracked.bookerId, id -> new Counters()).add(tracked, delta);
+        byOwner.computeIfAbsent(tracked.ownerId, id -> new Counters()).add(tracked, delta);
+    }
+
+    private void schedule(Tracked tracked) {
+        if (tracked.phase == Phase.FUTURE) {
+            transitions.add(new Transition(tracked.start, tracked.id));
+        } else if (tracked.phase == Phase.CURRENT) {
+            transitions.add(new Transition(tracked.end.plusNanos(1), tracked.id));
+        }
+    }
+
+    private Phase phaseOf(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(clock)) {
+            return Phase.FUTURE;
+        }
+        return end.isBefore(clock) ? Phase.PAST : Phase.CURRENT;
+    }
+
+    private enum Phase {
+        FUTURE, CURRENT, PAST
+    }
+
+    private record Transition(LocalDateTime at, Long bookingId) implements Comparable<Transition> {
+        @Override
+        public int compareTo(Transition other) {
+            return at.compareTo(other.at);
+        }
+    }
+
+    private static final class Tracked {
+        private final Long id;
+        private final Long bookerId;
+        private final Long ownerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private BookingStatus status;
+        private Phase phase;
+
+        private Tracked(Long id, Long bookerId, Long ownerId, LocalDateTime start, LocalDateTime end,
+                        BookingStatus status, Phase phase) {
+            this.id = id;
+            this.bookerId = bookerId;
+            this.ownerId = ownerId;
+            this.start = start;
+            this.end = end;
+            this.status = status;
+            this.phase = phase;
+        }
+    }
+
+    private static final class Counters {
+        private long all;
+        private long current;
+        private long past;
+        private long future;
+        private long waiting;
+        private long rejected;
+
+        private void add(Tracked tracked, int delta) {
+            all += delta;
+            switch (tracked.phase) {
+                case FUTURE -> future += delta;
+                case CURRENT -> current += delta;
+                case PAST -> past += delta;
+            }
+            if (tracked.status == BookingStatus.WAITING) {
+                waiting += delta;
+            } else if (tracked.status == BookingStatus.REJECTED) {
+                rejected += delta;
+            }
+        }
+
+        private BookingSummaryDto toDto() {
+            return new BookingSummaryDto(all, current, past, future, waiting, rejected);
+        }
+    }
+}
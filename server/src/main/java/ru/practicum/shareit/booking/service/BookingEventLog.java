@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingEventRepository;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Пишет изменение бронирования в журнал в той же транзакции, что и само изменение.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEventLog {
+    private final BookingEventRepository bookingEventRepository;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBookingUpdated(BookingUpdatedEvent event) {
+        bookingEventRepository.append(event.bookingId(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.BookingReadRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всей истории бронирований в NDJSON. Строки читаются одним курсором внутри
+ * read-only транзакции и сразу пишутся в ответ, поэтому память не зависит от объёма истории.
+ */
+@Slf4j
+@Service
+public class BookingExportService {
+    private final UserRepository userRepository;
+    private final BookingReadRepository bookingReadRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public BookingExportService(UserRepository userRepository,
+                                BookingReadRepository bookingReadRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.bookingReadRepository = bookingReadRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public StreamingResponseBody exportByBooker(Long bookerId) {
+        checkUser(bookerId);
+        return out -> export(out, () -> bookingReadRepository.streamAllByBookerId(bookerId));
+    }
+
+    public StreamingResponseBody exportByOwner(Long ownerId) {
+        checkUser(ownerId);
+        return out -> export(out, () -> bookingReadRepository.streamAllByOwnerId(ownerId));
+    }
+
+    private void export(OutputStream out, Supplier<Stream<BookingDtoOut>> bookings) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null)) {
+            long exported = readOnlyTransaction.execute(status -> {
+                try (Stream<BookingDtoOut> stream = bookings.get()) {
+                    return stream.mapToLong(booking -> writeLine(generator, booking)).sum();
+                }
+            });
+            log.info("Выгружено бронирований: {}", exported);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeLine(JsonGenerator generator, BookingDtoOut booking) {
+        try {
+            generator.writeObject(booking);
+            generator.writeRaw('\n');
+            return 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с Id " + userId + " не найден");
+        }
+    }
+}
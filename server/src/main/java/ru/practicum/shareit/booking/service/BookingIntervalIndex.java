@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingEndedEvent;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Деревья активных бронирований вещей для проверки пересечений. Дерево загружается из базы внутри
+ * computeIfAbsent, а смена статуса применяется после фиксации через computeIfPresent, поэтому отказ
+ * или истечение, зафиксированные во время загрузки, ждут её и не теряются. Новое бронирование кладётся
+ * в дерево сразу под блокировкой вещи, чтобы следующее бронирование той же вещи его увидело; при откате
+ * дерево вещи выбрасывается. Закончившиеся бронирования выбрасываются из дерева при каждом обращении
+ * к нему, а в памяти держатся деревья не более max-items вещей, к которым обращались последними;
+ * вытесненное дерево загружается заново.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private static final Set<BookingStatus> BLOCKING_STATUSES = EnumSet.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final int maxItems;
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+    private final Set<Long> recent = new LinkedHashSet<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.maxItems = maxItems;
+    }
+
+    public boolean isOverlapping(Long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.computeIfAbsent(itemId, this::load);
+        touch(itemId);
+        synchronized (tree) {
+            tree.removeEndedBy(LocalDateTime.now());
+            Long bookingId = tree.findOverlap(start, end);
+            if (bookingId != null) {
+                log.info("Бронирование вещи с Id {} пересекается с бронированием {}", itemId, bookingId);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Кладёт только что сохранённое бронирование в дерево до фиксации. Вызывается под блокировкой вещи
+     * после isOverlapping; если дерево уже вытеснено, следующая загрузка прочитает бронирование из базы.
+     */
+    public void add(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        trees.computeIfPresent(itemId, (id, tree) -> {
+            synchronized (tree) {
+                tree.put(bookingId, start, end);
+            }
+            return tree;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingUpdated(BookingUpdatedEvent event) {
+        trees.computeIfPresent(event.itemId(), (itemId, tree) -> {
+            synchronized (tree) {
+                tree.removeEndedBy(LocalDateTime.now());
+                if (BLOCKING_STATUSES.contains(event.status()) && event.end().isAfter(LocalDateTime.now())) {
+                    tree.put(event.bookingId(), event.start(), event.end());
+                } else {
+                    tree.remove(event.bookingId());
+                }
+            }
+            return tree;
+        });
+    }
+
+    /**
+     * Выбрасывает бронирование, когда колесо таймеров сообщает о его окончании, не дожидаясь обращения к дереву.
+     */
+    @EventListener
+    public void onBookingEnded(BookingEndedEvent event) {
+        trees.computeIfPresent(event.itemId(), (itemId, tree) -> {
+            synchronized (tree) {
+                tree.remove(event.bookingId());
+            }
+            return tree;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onBookingRolledBack(BookingUpdatedEvent event) {
+        trees.remove(event.itemId());
+    }
+
+    public int size() {
+        return trees.size();
+    }
+
+    /**
+     * Отмечает обращение к дереву вещи и вытесняет дерево, к которому дольше всех не обращались.
+     */
+    private void touch(Long itemId) {
+        Long evicted = null;
+        synchronized (recent) {
+            recent.remove(itemId);
+            recent.add(itemId);
+            if (recent.size() > maxItems) {
+                Iterator<Long> eldest = recent.iterator();
+                evicted = eldest.next();
+                eldest.remove();
+            }
+        }
+        if (evicted != null) {
+            trees.remove(evicted);
+        }
+    }
+
+    private IntervalTree load(Long itemId) {
+        IntervalTree tree = new IntervalTree();
+        for (Booking booking : bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(itemId,
+                BLOCKING_STATUSES, LocalDateTime.now())) {
+            tree.put(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        log.info("Загружено {} активных бронирований вещи с Id {}", tree.size(), itemId);
+        return tree;
+    }
+}
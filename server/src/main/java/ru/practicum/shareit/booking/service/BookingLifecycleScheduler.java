@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.event.BookingEndedEvent;
+import ru.practicum.shareit.booking.event.BookingStartedEvent;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Держит в колесе таймеров ближайшие сроки бронирований: начало и окончание подтверждённых
+ * и истечение неподтверждённых. При старте восстанавливается из базы. Истечение включается
+ * ненулевым shareit.booking.waiting-timeout: неподтверждённое бронирование отклоняется, когда
+ * с его начала прошло столько времени. По умолчанию (PT0S) неподтверждённые бронирования не истекают.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lifecycle.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingLifecycleScheduler {
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration waitingTimeout;
+    private final boolean expiryEnabled;
+    private final TimingWheel<Deadline> wheel;
+    private final Map<Long, List<TimingWheel.Timer<Deadline>>> timersByBooking = new HashMap<>();
+
+    public BookingLifecycleScheduler(BookingRepository bookingRepository,
+                                     BookingService bookingService,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${shareit.booking.lifecycle.tick-millis:1000}") long tickMillis,
+                                     @Value("${shareit.booking.waiting-timeout:PT0S}") Duration waitingTimeout) {
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.eventPublisher = eventPublisher;
+        this.waitingTimeout = waitingTimeout;
+        this.expiryEnabled = !waitingTimeout.isZero();
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Set<BookingStatus> statuses = expiryEnabled ? EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED)
+                : EnumSet.of(BookingStatus.APPROVED);
+        try (Stream<BookingStatusView> views = bookingRepository.streamStatusViewsByStatusInAndEndAfter(statuses,
+                LocalDateTime.now())) {
+            synchronized (wheel) {
+                views.forEach(this::schedule);
+                log.info("Колесо таймеров восстановлено: {} таймеров", wheel.size());
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingUpdated(BookingUpdatedEvent event) {
+        synchronized (wheel) {
+            schedule(new BookingStatusView(event.bookingId(), event.itemId(), null, event.start(), event.end(),
+                    event.status()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.lifecycle.tick-millis:1000}")
+    public void tick() {
+        List<Deadline> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+            for (Deadline deadline : due) {
+                List<TimingWheel.Timer<Deadline>> timers = timersByBooking.get(deadline.view().id());
+                if (timers != null) {
+                    timers.removeIf(timer -> !timer.isPending());
+                    if (timers.isEmpty()) {
+                        timersByBooking.remove(deadline.view().id());
+                    }
+                }
+            }
+        }
+        for (Deadline deadline : due) {
+            fire(deadline);
+        }
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void fire(Deadline deadline) {
+        BookingStatusView view = deadline.view();
+        try {
+            switch (deadline.kind()) {
+                case EXPIRE -> bookingService.expireWaiting(view);
+                case START -> eventPublisher.publishEvent(new BookingStartedEvent(view.id(), view.itemId(),
+                        view.start()));
+                case END -> eventPublisher.publishEvent(new BookingEndedEvent(view.id(), view.itemId(), view.end()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обработать срок {} бронирования с Id {}: {}", deadline.kind(), view.id(),
+                    e.getMessage());
+        }
+    }
+
+    private void schedule(BookingStatusView view) {
+        List<TimingWheel.Timer<Deadline>> previous = timersByBooking.remove(view.id());
+        if (previous != null) {
+            previous.forEach(TimingWheel.Timer::cancel);
+        }
+        List<TimingWheel.Timer<Deadline>> timers = new ArrayList<>(2);
+        if (view.status() == BookingStatus.WAITING && expiryEnabled) {
+            timers.add(wheel.schedule(toMillis(view.start().plus(waitingTimeout)), new Deadline(view, Kind.EXPIRE)));
+        } else if (view.status() == BookingStatus.APPROVED) {
+            if (view.start().isAfter(LocalDateTime.now())) {
+                timers.add(wheel.schedule(toMillis(view.start()), new Deadline(view, Kind.START)));
+            }
+            timers.add(wheel.schedule(toMillis(view.end()), new Deadline(view, Kind.END)));
+        }
+        if (!timers.isEmpty()) {
+            timersByBooking.put(view.id(), timers);
+        }
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private enum Kind {
+        EXPIRE,
+        START,
+        END
+    }
+
+    private record Deadline(BookingStatusView view, Kind kind) {
+    }
+}
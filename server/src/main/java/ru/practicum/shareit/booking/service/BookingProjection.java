@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Модель чтения, которая строится по журналу изменений бронирований. События приходят
+ * из одного потока строго по порядку журнала.
+ */
+public interface BookingProjection {
+    void apply(BookingEvent event);
+
+    /**
+     * Время для моделей, зависящих от текущего момента; вызывается после каждой порции событий.
+     */
+    default void advance(LocalDateTime now) {
+    }
+
+    /**
+     * Журнал прочитан до конца в первый раз, модель можно использовать для чтения.
+     */
+    default void onCaughtUp() {
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingEventRepository;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Читает журнал изменений бронирований по порядку и передаёт события моделям чтения.
+ * При старте журнал проигрывается с начала. Идентификаторы выдаются при вставке, а видны
+ * после фиксации, поэтому свежий пропуск в нумерации сначала ожидается до gap-timeout с момента, как он
+ * замечен. Затем чтение идёт дальше, а пропущенные номера откладываются и проверяются при каждом опросе: событие,
+ * зафиксированное позже, применяется, как только станет видно. Изменения одного бронирования идут под
+ * блокировкой его строки, поэтому позднее событие не обгоняет более новое событие того же бронирования.
+ * В PostgreSQL отложенный номер забывается, когда доказано, что его транзакция откатилась: завершились
+ * все транзакции, активные в момент обнаружения пропуска (pg_snapshot_xmin). В других базах номера
+ * транзакций недоступны, и отложенный номер забывается через pending-timeout после того, как отложен.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.projector.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingProjector {
+    private static final long UNKNOWN_XID = Long.MAX_VALUE;
+
+    private final BookingEventRepository bookingEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<BookingProjection> projections;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final Duration pendingTimeout;
+    private final boolean postgres;
+    private final Map<Long, Pending> pending = new TreeMap<>();
+    private long position;
+    private LocalDateTime gapSeen;
+    private boolean caughtUp;
+
+    public BookingProjector(BookingEventRepository bookingEventRepository,
+                            JdbcTemplate jdbcTemplate,
+                            List<BookingProjection> projections,
+                            @Value("${shareit.booking.projector.batch-size:500}") int batchSize,
+                            @Value("${shareit.booking.projector.gap-timeout:PT5S}") Duration gapTimeout,
+                            @Value("${shareit.booking.projector.pending-timeout:PT10M}") Duration pendingTimeout) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.projections = projections;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+        this.pendingTimeout = pendingTimeout;
+        this.postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.projector.delay-millis:200}")
+    public synchronized void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        applyPending(now);
+        int applied;
+        do {
+            applied = applyBatch(now);
+        } while (applied == batchSize);
+        for (BookingProjection projection : projections) {
+            projection.advance(now);
+        }
+        if (!caughtUp) {
+            caughtUp = true;
+            projections.forEach(BookingProjection::onCaughtUp);
+            log.info("Журнал бронирований прочитан до события {}", position);
+        }
+    }
+
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Применяет отложенные события, которые стали видны, и забывает номера откатившихся транзакций.
+     * Граница транзакций читается до поиска событий: если транзакция завершилась к этому моменту,
+     * а события всё ещё нет, значит она откатилась.
+     */
+    private void applyPending(LocalDateTime now) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long oldestRunning = postgres ? currentXid("pg_snapshot_xmin") : 0;
+        for (BookingEvent event : bookingEventRepository.findAllByIdInOrderById(pending.keySet())) {
+            log.info("Применено событие журнала {}, зафиксированное после следующих", event.getId());
+            apply(event);
+            pending.remove(event.getId());
+        }
+        if (postgres) {
+            pending.values().removeIf(missing -> missing.horizon() <= oldestRunning);
+            return;
+        }
+        LocalDateTime expired = now.minus(pendingTimeout);
+        int before = pending.size();
+        pending.values().removeIf(missing -> !missing.deferred().isAfter(expired));
+        if (pending.size() < before) {
+            log.warn("Забыто отложенных номеров журнала, не зафиксированных за {}: {}", pendingTimeout,
+                    before - pending.size());
+        }
+    }
+
+    private int applyBatch(LocalDateTime now) {
+        List<BookingEvent> events = bookingEventRepository.findAllByIdGreaterThanOrderById(position,
+                Limit.of(batchSize));
+        int applied = 0;
+        for (BookingEvent event : events) {
+            if (event.getId() != position + 1) {
+                if (gapSeen == null) {
+                    gapSeen = now;
+                }
+                LocalDateTime waitFrom = now.minus(gapTimeout);
+                if (gapSeen.isAfter(waitFrom) && event.getCreated().isAfter(waitFrom)) {
+                    log.debug("Ожидание событий журнала между {} и {}", position, event.getId());
+                    break;
+                }
+                defer(position + 1, event.getId(), now);
+            }
+            gapSeen = null;
+            apply(event);
+            position = event.getId();
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Откладывает номера из [from, to). Все транзакции, которые могли их занять, начались раньше
+     * текущего снимка, поэтому их номера меньше его xmax.
+     */
+    private void defer(long from, long to, LocalDateTime now) {
+        Pending missing = new Pending(postgres ? currentXid("pg_snapshot_xmax") : UNKNOWN_XID, now);
+        for (long id = from; id < to; id++) {
+            pending.put(id, missing);
+        }
+        log.warn("События журнала с {} по {} не зафиксированы за {}, чтение продолжено", from, to - 1, gapTimeout);
+    }
+
+    private void apply(BookingEvent event) {
+        for (BookingProjection projection : projections) {
+            projection.apply(event);
+        }
+    }
+
+    private long currentXid(String function) {
+        return jdbcTemplate.queryForObject("SELECT " + function + "(pg_current_snapshot())::text::bigint",
+                Long.class);
+    }
+
+    private record Pending(long horizon, LocalDateTime deferred) {
+    }
+}
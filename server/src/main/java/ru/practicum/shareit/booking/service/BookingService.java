@@ -2,15 +2,24 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingReadRepository;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoIn;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoOut;
+import ru.practicum.shareit.booking.dto.BookingBatchOutcome;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -19,8 +28,14 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OffsetPageRequest;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,11 +43,20 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class BookingService {
+    private static final Sort START_DESC = Sort.by("start").descending().and(Sort.by("id").descending());
+
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingReadRepository bookingReadRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockManager itemLockManager;
+    private final BookingSummaryCache bookingSummaryCache;
+    private final BookingCountersProjection bookingCountersProjection;
+    private final ApplicationEventPublisher eventPublisher;
 
     public BookingDtoOut saveNewBooking(BookingDtoIn bookingDtoIn, Long userId) {
+        itemLockManager.lockUntilCompletion(bookingDtoIn.getItemId());
         Item item = getItem(bookingDtoIn.getItemId());
         User booker = getUser(userId);
         if (!item.getAvailable()) {
@@ -41,29 +65,90 @@ public class BookingService {
         if (booker.getId().equals(item.getOwner().getId())) {
             throw new NotAvailableToBookOwnItemsException("Бронирование собственной вещи не доступно");
         }
+        if (bookingIntervalIndex.isOverlapping(item.getId(), bookingDtoIn.getStart(), bookingDtoIn.getEnd())) {
+            throw new BookingOverlapException("Вещь " + item.getName() + " уже забронирована на эти даты");
+        }
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setOwner(item.getOwner());
         bookingRepository.save(BookingMapper.toBooking(bookingDtoIn, booking));
+        bookingIntervalIndex.add(item.getId(), booking.getId(), booking.getStart(), booking.getEnd());
+        bookingSummaryCache.evict(booker.getId(), item.getOwner().getId());
+        publishUpdated(booking);
         log.info("Вещь с Id {} забронирована. Id брони {}", item.getName(), booking.getId());
         return BookingMapper.toBookingDtoOut(booking);
     }
 
     public BookingDtoOut approved(Long bookingId, Boolean isApproved, Long userId) {
-        Booking booking = getById(bookingId);
-        Item item = getItem(booking.getItem().getId());
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new ItemIsNotAvailableException("Вещь " + item.getName() + " уже забронирована");
-        }
-        if (!userId.equals(item.getOwner().getId())) {
-            throw new IllegalApproveException("Подтвердить бронирование может только собственник вещи");
-        }
         BookingStatus newBookingStatus = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
-        booking.setStatus(newBookingStatus);
+        if (bookingRepository.updateWaitingStatusByOwner(List.of(bookingId), userId, newBookingStatus) == 0) {
+            BookingStatusView view = bookingRepository.findStatusViewsByIdIn(List.of(bookingId)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Бронирование с Id " + bookingId + " не найдено"));
+            if (!userId.equals(view.ownerId())) {
+                throw new IllegalApproveException("Подтвердить бронирование может только собственник вещи");
+            }
+            throw new ItemIsNotAvailableException("Бронирование с Id " + bookingId + " уже рассмотрено");
+        }
+        Booking booking = getById(bookingId);
+        bookingSummaryCache.evict(booking.getBooker().getId(), userId);
+        publishUpdated(booking);
         log.info("Бронирование с Id {} обновлено", bookingId);
         return BookingMapper.toBookingDtoOut(booking);
     }
 
+    public List<BookingBatchDtoOut> approveAll(BookingBatchDtoIn batchDtoIn, Long ownerId) {
+        getUser(ownerId);
+        if (batchDtoIn.getBookingIds() == null || batchDtoIn.getBookingIds().isEmpty()
+                || batchDtoIn.getApproved() == null) {
+            throw new IllegalArgumentException("Не указаны бронирования или решение по ним");
+        }
+        List<Long> ids = batchDtoIn.getBookingIds().stream().distinct().toList();
+        BookingStatus newBookingStatus = batchDtoIn.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        Map<Long, BookingStatusView> views = bookingRepository.findStatusViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookingStatusView::id, Function.identity()));
+        Map<Long, BookingBatchOutcome> outcomes = new LinkedHashMap<>();
+        for (Long id : ids) {
+            outcomes.put(id, outcomeOf(views.get(id), ownerId));
+        }
+        List<Long> candidates = ids.stream().filter(id -> outcomes.get(id) == BookingBatchOutcome.UPDATED).toList();
+        if (!candidates.isEmpty()) {
+            Set<Long> locked = new HashSet<>(bookingRepository.findWaitingIdsByOwnerForUpdate(candidates, ownerId));
+            for (Long id : candidates) {
+                if (!locked.contains(id)) {
+                    outcomes.put(id, BookingBatchOutcome.ALREADY_DECIDED);
+                }
+            }
+            if (!locked.isEmpty()) {
+                bookingRepository.updateWaitingStatusByOwner(locked, ownerId, newBookingStatus);
+                bookingSummaryCache.evictAll();
+            }
+            for (Long id : candidates) {
+                if (locked.contains(id)) {
+                    BookingStatusView view = views.get(id);
+                    eventPublisher.publishEvent(new BookingUpdatedEvent(id, view.itemId(), view.start(), view.end(),
+                            newBookingStatus));
+                }
+            }
+        }
+        log.info("Пакетное обновление бронирований владельцем с Id {}: {}", ownerId, outcomes);
+        return outcomes.entrySet().stream()
+                .map(entry -> new BookingBatchDtoOut(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    public boolean expireWaiting(BookingStatusView view) {
+        if (bookingRepository.rejectIfWaiting(view.id()) == 0) {
+            return false;
+        }
+        bookingSummaryCache.evictAll();
+        eventPublisher.publishEvent(new BookingUpdatedEvent(view.id(), view.itemId(), view.start(), view.end(),
+                BookingStatus.REJECTED));
+        log.info("Бронирование с Id {} не подтверждено вовремя и отклонено", view.id());
+        return true;
+    }
+
     @Transactional(readOnly = true)
     public BookingDtoOut getBookingById(Long bookingId) {
         log.info("Получение бронирования с Id {}", bookingId);
@@ -76,74 +161,153 @@ public class BookingService {
     @Transactional(readOnly = true)
     public List<BookingDtoOut> getAllByBooker(Integer from, Integer size, String state, Long bookerId) {
         User booker = getUser(bookerId);
-        List<Booking> bookings;
-        BookingState bookingState;
-        try {
-            bookingState = BookingState.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new UnsupportedStatusException("Неизвестное состояние: UNSUPPORTED_STATE");
-        }
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
+        List<BookingDtoOut> bookings;
+        BookingState bookingState = parseState(state);
+        Pageable pageable = OffsetPageRequest.of(from, size, START_DESC);
         switch (bookingState) {
             case ALL:
-                bookings = bookingRepository.findAllByBookerId(bookerId, pageable);
+                bookings = bookingReadRepository.findAllByBookerId(bookerId, pageable);
                 break;
             case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStateCurrent(bookerId, pageable);
+                bookings = bookingReadRepository.findAllByBookerIdAndStateCurrent(bookerId, pageable);
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndStatePast(bookerId, pageable);
+                bookings = bookingReadRepository.findAllByBookerIdAndStatePast(bookerId, pageable);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStateFuture(bookerId, pageable);
+                bookings = bookingReadRepository.findAllByBookerIdAndStateFuture(bookerId, pageable);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(bookerId, BookingStatus.WAITING, pageable);
+                bookings = bookingReadRepository.findAllByBookerIdAndStatus(bookerId, BookingStatus.WAITING, pageable);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(bookerId, BookingStatus.REJECTED,
+                bookings = bookingReadRepository.findAllByBookerIdAndStatus(bookerId, BookingStatus.REJECTED,
                         pageable);
                 break;
             default:
                 throw new UnsupportedStatusException("Неизвестное состояние: UNSUPPORTED_STATE");
         }
-        return bookings.stream().map(BookingMapper::toBookingDtoOut).collect(Collectors.toList());
+        return bookings;
     }
 
     @Transactional(readOnly = true)
     public List<BookingDtoOut> getAllByOwner(Integer from, Integer size, String state, Long ownerId) {
         User owner = getUser(ownerId);
-        List<Booking> bookings;
-        BookingState bookingState;
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-        try {
-            bookingState = BookingState.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new UnsupportedStatusException("Неизвестное состояние: UNSUPPORTED_STATE");
-        }
+        List<BookingDtoOut> bookings;
+        BookingState bookingState = parseState(state);
+        Pageable pageable = OffsetPageRequest.of(from, size, START_DESC);
         switch (bookingState) {
             case ALL:
-                bookings = bookingRepository.findAllByOwnerId(ownerId, pageable);
+                bookings = bookingReadRepository.findAllByOwnerId(ownerId, pageable);
                 break;
             case CURRENT:
-                bookings = bookingRepository.findAllByOwnerIdAndStateCurrent(ownerId, pageable);
+                bookings = bookingReadRepository.findAllByOwnerIdAndStateCurrent(ownerId, pageable);
                 break;
             case PAST:
-                bookings = bookingRepository.findAllByOwnerIdAndStatePast(ownerId, pageable);
+                bookings = bookingReadRepository.findAllByOwnerIdAndStatePast(ownerId, pageable);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findAllByOwnerIdAndStateFuture(ownerId, pageable);
+                bookings = bookingReadRepository.findAllByOwnerIdAndStateFuture(ownerId, pageable);
                 break;
             case WAITING:
-                bookings = bookingRepository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.WAITING,
+                bookings = bookingReadRepository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.WAITING,
                         pageable);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, pageable);
+                bookings = bookingReadRepository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, pageable);
+                break;
             default:
                 throw new UnsupportedStatusException("Неизвестное состояние: UNSUPPORTED_STATE");
         }
-        return bookings.stream().map(BookingMapper::toBookingDtoOut).collect(Collectors.toList());
+        return bookings;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingDtoOut> getAllByBookerAfter(String after, Integer size, String state, Long bookerId) {
+        getUser(bookerId);
+        BookingState bookingState = parseState(state);
+        BookingCursor cursor = BookingCursor.decode(after);
+        Limit limit = Limit.of(size);
+        List<BookingDtoOut> bookings;
+        switch (bookingState) {
+            case ALL:
+                bookings = bookingReadRepository.findAllByBookerIdAfter(bookerId, cursor.start(), cursor.id(), limit);
+                break;
+            case CURRENT:
+                bookings = bookingReadRepository.findAllByBookerIdAndStateCurrentAfter(bookerId, cursor.start(),
+                        cursor.id(), limit);
+                break;
+            case PAST:
+                bookings = bookingReadRepository.findAllByBookerIdAndStatePastAfter(bookerId, cursor.start(),
+                        cursor.id(), limit);
+                break;
+            case FUTURE:
+                bookings = bookingReadRepository.findAllByBookerIdAndStateFutureAfter(bookerId, cursor.start(),
+                        cursor.id(), limit);
+                break;
+            case WAITING:
+                bookings = bookingReadRepository.findAllByBookerIdAndStatusAfter(bookerId, BookingStatus.WAITING,
+                        cursor.start(), cursor.id(), limit);
+                break;
+            case REJECTED:
+                bookings = bookingReadRepository.findAllByBookerIdAndStatusAfter(bookerId, BookingStatus.REJECTED,
+                        cursor.start(), cursor.id(), limit);
+                break;
+            default:
+                throw new UnsupportedStatusException("Неизвестное состояние: UNSUPPORTED_STATE");
+        }
+        return bookings;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingDtoOut> getAllByOwnerAfter(String after, Integer size, String state, Long ownerId) {
+        getUser(ownerId);
+        BookingState bookingState = parseState(state);
+        BookingCursor cursor = BookingCursor.decode(after);
+        Limit limit = Limit.of(size);
+        List<BookingDtoOut> bookings;
+        switch (bookingState) {
+            case ALL:
+                bookings = bookingReadRepository.findAllByOwnerIdAfter(ownerId, cursor.start(), cursor.id(), limit);
+                break;
+            case CURRENT:
+                bookings = bookingReadRepository.findAllByOwnerIdAndStateCurrentAfter(ownerId, cursor.start(),
+                        cursor.id(), limit);
+                break;
+            case PAST:
+                bookings = bookingReadRepository.findAllByOwnerIdAndStatePastAfter(ownerId, cursor.start(),
+                        cursor.id(), limit);
+                break;
+            case FUTURE:
+                bookings = bookingReadRepository.findAllByOwnerIdAndStateFutureAfter(ownerId, cursor.start(),
+                        cursor.id(), limit);
+                break;
+            case WAITING:
+                bookings = bookingReadRepository.findAllByOwnerIdAndStatusAfter(ownerId, BookingStatus.WAITING,
+                        cursor.start(), cursor.id(), limit);
+                break;
+            case REJECTED:
+                bookings = bookingReadRepository.findAllByOwnerIdAndStatusAfter(ownerId, BookingStatus.REJECTED,
+                        cursor.start(), cursor.id(), limit);
+                break;
+            default:
+                throw new UnsupportedStatusException("Неизвестное состояние: UNSUPPORTED_STATE");
+        }
+        return bookings;
+    }
+
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getSummaryByBooker(Long bookerId) {
+        getUser(bookerId);
+        return bookingCountersProjection.getByBooker(bookerId).orElseGet(() ->
+                bookingSummaryCache.getByBooker(bookerId, () -> bookingReadRepository.summarizeByBookerId(bookerId)));
+    }
+
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getSummaryByOwner(Long ownerId) {
+        getUser(ownerId);
+        return bookingCountersProjection.getByOwner(ownerId).orElseGet(() ->
+                bookingSummaryCache.getByOwner(ownerId, () -> bookingReadRepository.summarizeByOwnerId(ownerId)));
     }
 
     @Transactional(readOnly = true)
@@ -152,6 +316,32 @@ public class BookingService {
                 new NotFoundException("Бронирование с Id " + bookingId + " не найдено"));
     }
 
+    private BookingState parseState(String state) {
+        try {
+            return BookingState.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedStatusException("Неизвестное состояние: UNSUPPORTED_STATE");
+        }
+    }
+
+    private BookingBatchOutcome outcomeOf(BookingStatusView view, Long ownerId) {
+        if (view == null) {
+            return BookingBatchOutcome.NOT_FOUND;
+        }
+        if (!ownerId.equals(view.ownerId())) {
+            return BookingBatchOutcome.NOT_OWNER;
+        }
+        if (view.status() != BookingStatus.WAITING) {
+            return BookingBatchOutcome.ALREADY_DECIDED;
+        }
+        return BookingBatchOutcome.UPDATED;
+    }
+
+    private void publishUpdated(Booking booking) {
+        eventPublisher.publishEvent(new BookingUpdatedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus()));
+    }
+
     private User getUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Пользователь с Id " + userId + " не найден"));
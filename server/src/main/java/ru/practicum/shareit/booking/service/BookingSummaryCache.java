@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш сводок по бронированиям пользователя. Запись живёт не дольше ttl, так как CURRENT, PAST и FUTURE
+ * меняются со временем и без записи в базу. При нулевом ttl кэш выключен.
+ */
+@Component
+public class BookingSummaryCache {
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookingSummaryCache(@Value("${shareit.booking.summary.cache-ttl:PT0S}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public BookingSummaryDto getByBooker(Long bookerId, Supplier<BookingSummaryDto> loader) {
+        return get(new Key(Role.BOOKER, bookerId), loader);
+    }
+
+    public BookingSummaryDto getByOwner(Long ownerId, Supplier<BookingSummaryDto> loader) {
+        return get(new Key(Role.OWNER, ownerId), loader);
+    }
+
+    /**
+     * Сбрасывает сводки сразу и ещё раз после фиксации транзакции, чтобы параллельное чтение
+     * не вернуло в кэш незафиксированное состояние.
+     */
+    public void evict(Long bookerId, Long ownerId) {
+        runNowAndAfterCommit(() -> {
+            generation.incrementAndGet();
+            entries.remove(new Key(Role.BOOKER, bookerId));
+            entries.remove(new Key(Role.OWNER, ownerId));
+        });
+    }
+
+    public void evictAll() {
+        runNowAndAfterCommit(() -> {
+            generation.incrementAndGet();
+            entries.clear();
+        });
+    }
+
+    private BookingSummaryDto get(Key key, Supplier<BookingSummaryDto> loader) {
+        if (ttlNanos <= 0) {
+            return loader.get();
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            return entry.summary();
+        }
+        long loadedGeneration = generation.get();
+        BookingSummaryDto summary = loader.get();
+        if (generation.get() == loadedGeneration) {
+            entries.put(key, new Entry(summary, now));
+            if (generation.get() != loadedGeneration) {
+                entries.remove(key);
+            }
+        }
+        return summary;
+    }
+
+    private void runNowAndAfterCommit(Runnable action) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private enum Role {
+        BOOKER,
+        OWNER
+    }
+
+    private record Key(Role role, Long userId) {
+    }
+
+    private record Entry(BookingSummaryDto summary, long loadedAt) {
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.LockTimeoutException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по Id вещи. Блокировка держится до завершения текущей транзакции,
+ * поэтому конкурирующее бронирование той же вещи видит уже зафиксированный результат.
+ */
+@Slf4j
+@Component
+public class ItemLockManager {
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+
+    public ItemLockManager(MeterRegistry meterRegistry,
+                           @Value("${shareit.booking.item-lock.stripes:1024}") int stripes,
+                           @Value("${shareit.booking.item-lock.timeout-millis:5000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripes, 1) * 2 - 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.waitTimer = Timer.builder("shareit.booking.item.lock.wait")
+                .description("Ожидание блокировки вещи при бронировании")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("shareit.booking.item.lock.timeouts")
+                .description("Бронирования, не дождавшиеся блокировки вещи")
+                .register(meterRegistry);
+    }
+
+    public void lockUntilCompletion(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи доступна только внутри транзакции");
+        }
+        ReentrantLock lock = stripes[stripe(itemId)];
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            timeouts.increment();
+            log.info("Не удалось дождаться блокировки вещи с Id {}", itemId);
+            throw new LockTimeoutException("Вещь с Id " + itemId + " сейчас бронируется, повторите попытку позже");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int stripe(Long itemId) {
+        int hash = Long.hashCode(itemId) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
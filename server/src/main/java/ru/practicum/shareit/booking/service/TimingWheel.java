@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Иерархическое колесо таймеров: 6 уровней по 64 слота, шаг задаётся в миллисекундах.
+ * Добавление и отмена таймера выполняются за O(1), при переполнении уровня
+ * таймеры переносятся на нижний уровень. Не потокобезопасно.
+ */
+public class TimingWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final List<Timer<T>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final int[] counts = new int[LEVELS];
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            Timer<T> sentinel = new Timer<>(this, 0, null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            slots.add(sentinel);
+        }
+    }
+
+    public Timer<T> schedule(long deadlineMillis, T payload) {
+        Timer<T> timer = new Timer<>(this, Math.floorDiv(deadlineMillis, tickMillis), payload);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    public List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= nowTick) {
+            int index = (int) (currentTick & MASK);
+            if (index == 0) {
+                cascade();
+            }
+            if (counts[0] == 0) {
+                currentTick = Math.min(nextCascade(), nowTick + 1);
+                continue;
+            }
+            Timer<T> timer = detach(slots.get(index));
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                counts[0]--;
+                if (timer.tick <= currentTick) {
+                    timer.prev = null;
+                    timer.next = null;
+                    size--;
+                    expired.add(timer.payload);
+                } else {
+                    place(timer);
+                }
+                timer = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Timer<T> timer = detach(slots.get(level * SLOTS + index));
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                counts[level]--;
+                place(timer);
+                timer = next;
+            }
+            if (index != 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ближайший тик, на котором непустой верхний уровень переносит таймеры вниз.
+     */
+    private long nextCascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if (counts[level] > 0) {
+                return ((currentTick >>> (BITS * level)) + 1) << (BITS * level);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void place(Timer<T> timer) {
+        long expires = Math.max(timer.tick, currentTick);
+        long delta = Math.min(expires - currentTick, MAX_DELTA);
+        expires = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((expires >>> (BITS * level)) & MASK);
+        Timer<T> sentinel = slots.get(level * SLOTS + index);
+        timer.level = level;
+        counts[level]++;
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    /**
+     * Отцепляет содержимое слота и возвращает его первый таймер; список завершается null.
+     */
+    private Timer<T> detach(Timer<T> sentinel) {
+        if (sentinel.next == sentinel) {
+            return null;
+        }
+        Timer<T> first = sentinel.next;
+        sentinel.prev.next = null;
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        return first;
+    }
+
+    public static final class Timer<T> {
+        private final TimingWheel<T> wheel;
+        private final long tick;
+        private final T payload;
+        private int level;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(TimingWheel<T> wheel, long tick, T payload) {
+            this.wheel = wheel;
+            this.tick = tick;
+            this.payload = payload;
+        }
+
+        public boolean isPending() {
+            return prev != null;
+        }
+
+        public boolean cancel() {
+            if (prev == null) {
+                return false;
+            }
+            prev.next = next;
+            if (next != null) {
+                next.prev = prev;
+            }
+            prev = null;
+            next = null;
+            wheel.counts[level]--;
+            wheel.size--;
+            return true;
+        }
+    }
+}
@@ -29,16 +29,17 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
-    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ExceptionHandler({DataIntegrityViolationException.class, BookingOverlapException.class,
+            LockTimeoutException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse handleDataIntegrityViolation(DataIntegrityViolationException e) {
+    public ErrorResponse handleConflict(RuntimeException e) {
         log.info(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler({IllegalApproveException.class})
     @ResponseStatus(HttpStatus.FORBIDDEN)
-    public ErrorResponse handleNotOwner(NotOwnerException e) {
+    public ErrorResponse handleNotOwner(RuntimeException e) {
         log.info(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Generated;
+
+@Generated
+public class LockTimeoutException extends RuntimeException {
+    public LockTimeoutException(String message) {
+        super(message);
+    }
+}
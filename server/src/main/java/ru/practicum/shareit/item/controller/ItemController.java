@@ -2,15 +2,19 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDtoIn;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.utils.Create;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -38,9 +42,40 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDtoOut> getItemsBySearch(@RequestParam(defaultValue = "1") Integer from,
                                              @RequestParam(defaultValue = "10") Integer size,
-                                             @RequestParam String text) {
-        log.info("GET / search / {}", text);
-        return itemService.getItemBySearch(from, size, text);
+                                             @RequestParam String text,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                             @RequestParam(required = false) Integer fuzzy) {
+        log.info("GET / search / {} / {} - {} / fuzzy {}", text, start, end, fuzzy);
+        if (fuzzy != null) {
+            if (start != null || end != null) {
+                throw new IllegalArgumentException("Поиск с опечатками не совмещается с поиском по датам");
+            }
+            return itemService.getItemByFuzzySearch(from, size, text, fuzzy);
+        }
+        if (start == null && end == null) {
+            return itemService.getItemBySearch(from, size, text);
+        }
+        return itemService.getAvailableItemBySearch(from, size, text, start, end);
+    }
+
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> getSuggestions(@RequestParam String prefix,
+                                                  @RequestParam(defaultValue = "10") Integer size) {
+        log.info("GET / suggest / {}", prefix);
+        return itemService.getSuggestions(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityIntervalDto> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(XSHARER) Long userId) {
+        log.info("GET / items {} / availability / user {}", itemId, userId);
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.dto;
+
+public record ItemSearchDocument(Long id, String name, String description) {
+}
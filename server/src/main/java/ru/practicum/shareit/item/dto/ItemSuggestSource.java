@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.dto;
+
+public record ItemSuggestSource(Long id, String name, Long bookings) {
+}
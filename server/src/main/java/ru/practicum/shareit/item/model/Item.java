@@ -2,12 +2,18 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+        @Index(name = "items_owner_idx", columnList = "owner_id, id"),
+        @Index(name = "items_request_idx", columnList = "request_id"),
+        @Index(name = "items_last_booking_idx", columnList = "last_booking_id"),
+        @Index(name = "items_next_booking_idx", columnList = "next_booking_id")
+})
 @Getter
 @Setter
 @ToString
@@ -16,17 +22,35 @@ import ru.practicum.shareit.user.model.User;
 @Builder
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+    @SequenceGenerator(name = "items_id_seq", sequenceName = "items_id_seq", allocationSize = 50)
     private Long id;
     private String name;
+    @Column(length = 1012)
     private String description;
     private Boolean available;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    /**
+     * Ссылки на бронирования без внешнего ключа: bookings секционирована, обнуление при удалении
+     * бронирования делает триггер bookings_clear_item_pointers.
+     */
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Booking lastBooking;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Booking nextBooking;
 }
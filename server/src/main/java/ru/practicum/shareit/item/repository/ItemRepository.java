@@ -1,20 +1,116 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.dto.ItemSuggestSource;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"owner", "lastBooking", "nextBooking"})
+    Optional<Item> findById(Long id);
+
+    @EntityGraph(attributePaths = {"owner", "lastBooking", "nextBooking"})
     List<Item> findAllByOwnerId(Long userId, Pageable pageable);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    @Query("SELECT i.id FROM Item i JOIN i.nextBooking b WHERE b.start <= ?1")
+    List<Long> findIdsByNextBookingStartNotAfter(LocalDateTime moment);
+
+    /**
+     * Полнотекстовый поиск доступных вещей, более релевантные идут первыми.
+     */
+    @EntityGraph(attributePaths = {"owner"})
     @Query("SELECT i FROM Item i " +
-            "WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            "AND i.available = true")
+            "WHERE i.available = true " +
+            "AND item_text_match(i.name, i.description, ?1) " +
+            "ORDER BY item_text_rank(i.name, ?1) DESC, i.id")
     List<Item> search(String text, Pageable pageable);
 
+    /**
+     * Поиск доступных вещей по подстроке или похожему слову в названии и описании.
+     */
+    @EntityGraph(attributePaths = {"owner"})
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = true " +
+            "AND item_trigram_match(i.name, i.description, ?1) " +
+            "ORDER BY item_trigram_rank(i.name, i.description, ?1) DESC, i.id")
+    List<Item> searchByTrigram(String text, Pageable pageable);
+
+    /**
+     * Поиск вещей, свободных в окне [start, end). Полуоткрытые периоды совпадают с ограничением
+     * исключения в PostgreSQL. Подзапрос находит подтверждённые бронирования вещи по индексу
+     * (item_id, status, start_booking) и проверяет пересечение фильтром.
+     */
+    @EntityGraph(attributePaths = {"owner"})
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = true " +
+            "AND item_text_match(i.name, i.description, ?1) " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item.id = i.id " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.archived = false " +
+            "AND period_overlaps(b.start, b.end, ?2, ?3))")
+    List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner"})
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = true " +
+            "AND item_trigram_match(i.name, i.description, ?1) " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item.id = i.id " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.archived = false " +
+            "AND period_overlaps(b.start, b.end, ?2, ?3))")
+    List<Item> searchAvailableByTrigram(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner"})
+    List<Item> findAllByIdInAndAvailableTrueOrderById(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"owner"})
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.id IN ?1 " +
+            "AND i.available = true " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item.id = i.id " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.archived = false " +
+            "AND period_overlaps(b.start, b.end, ?2, ?3)) " +
+            "ORDER BY i.id")
+    List<Item> findAllFreeByIdIn(Collection<Long> ids, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemSearchDocument(i.id, i.name, i.description) " +
+            "FROM Item i " +
+            "WHERE i.id > ?1 AND i.available = true " +
+            "ORDER BY i.id")
+    List<ItemSearchDocument> findSearchDocuments(Long afterId, Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemSuggestSource(i.id, i.name, count(b.id)) " +
+            "FROM Item i " +
+            "LEFT JOIN Booking b ON b.item = i " +
+            "AND b.status <> ru.practicum.shareit.booking.model.BookingStatus.REJECTED " +
+            "WHERE i.id > ?1 AND i.available = true " +
+            "GROUP BY i.id, i.name " +
+            "ORDER BY i.id")
+    List<ItemSuggestSource> findSuggestSources(Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = {"owner"})
     List<Item> findAllByRequestId(Long requestId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"owner"})
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+}
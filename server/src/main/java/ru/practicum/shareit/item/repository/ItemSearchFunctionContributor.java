@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Функции поиска вещей для JPQL. Полнотекстовые item_text_match и item_text_rank в PostgreSQL работают
+ * с вычисляемой колонкой search_vector (tsvector в русской и простой конфигурациях, название весомее
+ * описания) через GIN-индекс с ранжированием ts_rank. Атрибута для колонки у Item нет, чтобы tsvector
+ * не читался с каждой вещью: функции берут её из той же строки, что и колонку названия в первом
+ * аргументе. Триграммные item_trigram_match и item_trigram_rank ищут подстроку через ILIKE и похожие
+ * слова через оператор {@code <%}, оба используют GIN-индексы pg_trgm. В остальных СУБД (H2 в тестах)
+ * функции раскрываются в поиск подстроки по названию и описанию.
+ */
+public class ItemSearchFunctionContributor implements FunctionContributor {
+    private static final String SUBSTRING = "?%d ilike concat('%%', cast(?3 as text), '%%')";
+    private static final String CONTAINS = "upper(?%d) like concat('%%', upper(?%d), '%%')";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        if (functionContributions.getDialect() instanceof PostgreSQLDialect) {
+            registry.register("item_text_match", new SearchVectorFunction("item_text_match", 3, "(", " @@ ", ")",
+                    types.resolve(StandardBasicTypes.BOOLEAN)));
+            registry.register("item_text_rank", new SearchVectorFunction("item_text_rank", 2, "ts_rank(", ", ", ")",
+                    types.resolve(StandardBasicTypes.DOUBLE)));
+            registry.registerPattern("item_trigram_match", "(" + SUBSTRING.formatted(1) + " or "
+                    + SUBSTRING.formatted(2) + " or cast(?3 as text) <% ?1)",
+                    types.resolve(StandardBasicTypes.BOOLEAN));
+            registry.registerPattern("item_trigram_rank", "greatest(word_similarity(cast(?3 as text), ?1), "
+                    + "word_similarity(cast(?3 as text), ?2) / 2)", types.resolve(StandardBasicTypes.DOUBLE));
+        } else {
+            registry.registerPattern("item_text_match",
+                    "(" + CONTAINS.formatted(1, 3) + " or " + CONTAINS.formatted(2, 3) + ")",
+                    types.resolve(StandardBasicTypes.BOOLEAN));
+            registry.registerPattern("item_text_rank",
+                    "(case when " + CONTAINS.formatted(1, 2) + " then 1.0 else 0.0 end)",
+                    types.resolve(StandardBasicTypes.DOUBLE));
+            registry.registerPattern("item_trigram_match",
+                    "(" + CONTAINS.formatted(1, 3) + " or " + CONTAINS.formatted(2, 3) + ")",
+                    types.resolve(StandardBasicTypes.BOOLEAN));
+            registry.registerPattern("item_trigram_rank",
+                    "(case when " + CONTAINS.formatted(1, 3) + " then 1.0 else 0.0 end)",
+                    types.resolve(StandardBasicTypes.DOUBLE));
+        }
+    }
+
+    /**
+     * Выражение над search_vector и запросом из последнего аргумента: prefix vector infix query suffix.
+     */
+    private static final class SearchVectorFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+        private final String prefix;
+        private final String infix;
+        private final String suffix;
+
+        private SearchVectorFunction(String name, int arguments, String prefix, String infix, String suffix,
+                                     BasicType<?> type) {
+            super(name, StandardArgumentsValidators.exactly(arguments),
+                    StandardFunctionReturnTypeResolvers.invariant(type), null);
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+            ColumnReference name = ((Expression) arguments.get(0)).getColumnReference();
+            if (name == null) {
+                throw new IllegalArgumentException(getName() + ": первым аргументом должна быть колонка вещи");
+            }
+            SqlAstNode text = arguments.get(arguments.size() - 1);
+            sqlAppender.appendSql(prefix);
+            if (name.getQualifier() != null) {
+                sqlAppender.appendSql(name.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+            sqlAppender.appendSql("search_vector");
+            sqlAppender.appendSql(infix);
+            sqlAppender.appendSql("(websearch_to_tsquery('russian', cast(");
+            text.accept(walker);
+            sqlAppender.appendSql(" as text)) || websearch_to_tsquery('simple', cast(");
+            text.accept(walker);
+            sqlAppender.appendSql(" as text)))");
+            sqlAppender.appendSql(suffix);
+        }
+    }
+}
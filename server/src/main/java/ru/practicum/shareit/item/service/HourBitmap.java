@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.Arrays;
+
+/**
+ * Разреженная битовая карта часов: хранятся только ненулевые 64-битные слова, упорядоченные
+ * по номеру. Год занятости вещи укладывается в 137 слов, поиск соседнего занятого или свободного
+ * часа — двоичный поиск слова и Long.numberOfTrailingZeros.
+ */
+public class HourBitmap {
+    private int[] keys = new int[8];
+    private long[] words = new long[8];
+    private int size;
+
+    /**
+     * Отмечает часы [from, to).
+     */
+    public void set(long from, long to) {
+        for (long hour = from; hour < to; hour = nextWordStart(hour)) {
+            int i = indexOf(wordOf(hour));
+            if (i < 0) {
+                i = insert(-i - 1, wordOf(hour));
+            }
+            words[i] |= mask(hour, to);
+        }
+    }
+
+    /**
+     * Снимает отметку с часов [from, to).
+     */
+    public void clear(long from, long to) {
+        for (long hour = from; hour < to; hour = nextWordStart(hour)) {
+            int i = indexOf(wordOf(hour));
+            if (i < 0) {
+                continue;
+            }
+            words[i] &= ~mask(hour, to);
+            if (words[i] == 0) {
+                remove(i);
+            }
+        }
+    }
+
+    public boolean get(long hour) {
+        int i = indexOf(wordOf(hour));
+        return i >= 0 && (words[i] & (1L << hour)) != 0;
+    }
+
+    /**
+     * Первый отмеченный час не раньше from или -1, если таких нет.
+     */
+    public long nextSetHour(long from) {
+        int i = indexOf(wordOf(from));
+        if (i >= 0) {
+            long word = words[i] & (-1L << from);
+            if (word != 0) {
+                return ((long) keys[i] << 6) + Long.numberOfTrailingZeros(word);
+            }
+            i++;
+        } else {
+            i = -i - 1;
+        }
+        return i < size ? ((long) keys[i] << 6) + Long.numberOfTrailingZeros(words[i]) : -1;
+    }
+
+    /**
+     * Первый неотмеченный час не раньше from.
+     */
+    public long nextClearHour(long from) {
+        int key = wordOf(from);
+        int i = indexOf(key);
+        long word = i >= 0 ? ~words[i] & (-1L << from) : -1L << from;
+        while (word == 0) {
+            key++;
+            i++;
+            word = i < size && keys[i] == key ? ~words[i] : -1L;
+        }
+        return ((long) key << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Количество хранимых слов.
+     */
+    public int wordCount() {
+        return size;
+    }
+
+    private static int wordOf(long hour) {
+        return Math.toIntExact(hour >> 6);
+    }
+
+    private static long nextWordStart(long hour) {
+        return ((hour >> 6) + 1) << 6;
+    }
+
+    private static long mask(long from, long to) {
+        long mask = -1L << from;
+        if (to < nextWordStart(from)) {
+            mask &= -1L >>> (64 - (to & 63));
+        }
+        return mask;
+    }
+
+    private int indexOf(int key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private int insert(int i, int key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            words = Arrays.copyOf(words, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(words, i, words, i + 1, size - i);
+        keys[i] = key;
+        words[i] = 0;
+        size++;
+        return i;
+    }
+
+    private void remove(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(words, i + 1, words, i, size - i - 1);
+        size--;
+    }
+}
@@ -0,0 +1,256 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingProjection;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Календарь занятости вещей по часам. Час считается занятым, если его задевает хотя бы одно
+ * подтверждённое бронирование; края занятого отрезка уточняются по началу первого и концу последнего
+ * бронирования в нём, а свободные промежутки внутри часов, которые задевают соседние бронирования,
+ * не показываются. Занятый отрезок, который после обрезки по границам окна оказался пустым (бронирование
+ * задевает крайний час окна, но лежит за его границей), пропускается. Пока журнал бронирований
+ * не прочитан проекцией, календари загружаются из базы по запросу внутри computeIfAbsent и обновляются
+ * событиями сервиса после фиксации: обновление ждёт идущую загрузку и не теряется. После - календари
+ * ведутся только по журналу, а закончившиеся бронирования выбрасываются из них раз в час.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex implements BookingProjection {
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final Comparator<Span> BY_START = Comparator.comparing(Span::start)
+            .thenComparing(Span::bookingId);
+    private static final Comparator<Span> BY_END = Comparator.comparing(Span::end)
+            .thenComparing(Span::bookingId);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Calendar> calendars = new ConcurrentHashMap<>();
+    private final Map<Long, Calendar> projected = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private long prunedHour;
+
+    public List<AvailabilityIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Calendar calendar = ready ? projected.getOrDefault(itemId, new Calendar())
+                : calendars.computeIfAbsent(itemId, this::load);
+        List<AvailabilityIntervalDto> intervals = new ArrayList<>();
+        long toHour = ceilHour(to);
+        LocalDateTime cursor = from;
+        synchronized (calendar) {
+            calendar.removeEndedBy(LocalDateTime.now());
+            long busyFrom = calendar.busy.nextSetHour(floorHour(from));
+            while (busyFrom >= 0 && busyFrom < toHour) {
+                long busyTo = calendar.busy.nextClearHour(busyFrom);
+                LocalDateTime start = max(calendar.busy.get(busyFrom - 1) ? toTime(busyFrom)
+                        : calendar.firstStartIn(busyFrom), from);
+                LocalDateTime end = min(calendar.lastEndIn(busyTo - 1), to);
+                LocalDateTime freeTo = min(start, to);
+                if (cursor.isBefore(freeTo)) {
+                    intervals.add(new AvailabilityIntervalDto(cursor, freeTo, true));
+                    cursor = freeTo;
+                }
+                if (start.isBefore(end)) {
+                    intervals.add(new AvailabilityIntervalDto(start, end, false));
+                    cursor = end;
+                }
+                busyFrom = calendar.busy.nextSetHour(busyTo);
+            }
+        }
+        if (cursor.isBefore(to)) {
+            intervals.add(new AvailabilityIntervalDto(cursor, to, true));
+        }
+        return intervals;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingUpdated(BookingUpdatedEvent event) {
+        calendars.computeIfPresent(event.itemId(), (itemId, calendar) -> {
+            update(calendar, event.bookingId(), event.start(), event.end(), event.status());
+            return calendar;
+        });
+    }
+
+    @Override
+    public void apply(BookingEvent event) {
+        update(projected.computeIfAbsent(event.getItemId(), id -> new Calendar()), event.getBookingId(),
+                event.getStart(), event.getEnd(), event.getStatus());
+    }
+
+    /**
+     * Раз в час выбрасывает закончившиеся бронирования из календарей журнала, опустевшие календари удаляются.
+     */
+    @Override
+    public void advance(LocalDateTime now) {
+        long hour = floorHour(now);
+        if (hour == prunedHour) {
+            return;
+        }
+        prunedHour = hour;
+        for (Long itemId : projected.keySet()) {
+            projected.computeIfPresent(itemId, (id, calendar) -> {
+                synchronized (calendar) {
+                    calendar.removeEndedBy(now);
+                    return calendar.isEmpty() ? null : calendar;
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onCaughtUp() {
+        ready = true;
+        calendars.clear();
+    }
+
+    /**
+     * Количество вещей с календарём в памяти.
+     */
+    public int size() {
+        return ready ? projected.size() : calendars.size();
+    }
+
+    private void update(Calendar calendar, Long bookingId, LocalDateTime start, LocalDateTime end,
+                        BookingStatus status) {
+        synchronized (calendar) {
+            if (status == BookingStatus.APPROVED && end.isAfter(LocalDateTime.now())) {
+                calendar.put(bookingId, start, end);
+            } else {
+                calendar.remove(bookingId);
+            }
+        }
+    }
+
+    private Calendar load(Long itemId) {
+        Calendar calendar = new Calendar();
+        for (Booking booking : bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(itemId,
+                EnumSet.of(BookingStatus.APPROVED), LocalDateTime.now())) {
+            calendar.put(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        log.info("Загружен календарь вещи с Id {}: {} бронирований", itemId, calendar.spans.size());
+        return calendar;
+    }
+
+    private static long floorHour(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    private static long ceilHour(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC) + (time.getNano() > 0 ? 1 : 0);
+        return Math.ceilDiv(seconds, SECONDS_PER_HOUR);
+    }
+
+    private static LocalDateTime toTime(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * SECONDS_PER_HOUR, 0, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static final class Calendar {
+        private final HourBitmap busy = new HourBitmap();
+        private final Map<Long, Span> spans = new HashMap<>();
+        private final NavigableSet<Span> byStart = new TreeSet<>(BY_START);
+        private final NavigableSet<Span> byEnd = new TreeSet<>(BY_END);
+
+        void put(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            remove(bookingId);
+            if (!end.isAfter(start)) {
+                return;
+            }
+            Span span = new Span(bookingId, start, end, floorHour(start), ceilHour(end));
+            spans.put(bookingId, span);
+            byStart.add(span);
+            byEnd.add(span);
+            busy.set(span.fromHour(), span.toHour());
+        }
+
+        void remove(Long bookingId) {
+            Span removed = spans.remove(bookingId);
+            if (removed == null) {
+                return;
+            }
+            byStart.remove(removed);
+            byEnd.remove(removed);
+            busy.clear(removed.fromHour(), removed.toHour());
+            restore(removed.fromHour(), removed.toHour());
+        }
+
+        void removeEndedBy(LocalDateTime moment) {
+            long clearedFrom = Long.MAX_VALUE;
+            long clearedTo = Long.MIN_VALUE;
+            while (!byEnd.isEmpty() && !byEnd.first().end().isAfter(moment)) {
+                Span ended = byEnd.pollFirst();
+                byStart.remove(ended);
+                spans.remove(ended.bookingId());
+                busy.clear(ended.fromHour(), ended.toHour());
+                clearedFrom = Math.min(clearedFrom, ended.fromHour());
+                clearedTo = Math.max(clearedTo, ended.toHour());
+            }
+            if (clearedFrom < clearedTo) {
+                restore(clearedFrom, clearedTo);
+            }
+        }
+
+        boolean isEmpty() {
+            return spans.isEmpty();
+        }
+
+        /**
+         * Начало первого бронирования, которое начинается в часе hour.
+         */
+        LocalDateTime firstStartIn(long hour) {
+            return byStart.ceiling(Span.probe(toTime(hour), Long.MIN_VALUE)).start();
+        }
+
+        /**
+         * Конец последнего бронирования, которое заканчивается в часе hour.
+         */
+        LocalDateTime lastEndIn(long hour) {
+            return byEnd.floor(Span.probe(toTime(hour + 1), Long.MAX_VALUE)).end();
+        }
+
+        /**
+         * Соседние бронирования могут делить час, поэтому после снятия отметки с часов [from, to)
+         * часы оставшихся пересекающихся бронирований отмечаются заново.
+         */
+        private void restore(long from, long to) {
+            for (Span span : byStart.headSet(Span.probe(toTime(to), Long.MIN_VALUE), false)) {
+                if (span.toHour() > from) {
+                    busy.set(Math.max(span.fromHour(), from), Math.min(span.toHour(), to));
+                }
+            }
+        }
+    }
+
+    private record Span(Long bookingId, LocalDateTime start, LocalDateTime end, long fromHour, long toHour) {
+        static Span probe(LocalDateTime time, long bookingId) {
+            return new Span(bookingId, time, time, 0, 0);
+        }
+    }
+}
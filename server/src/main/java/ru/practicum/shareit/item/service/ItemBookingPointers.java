@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingStartedEvent;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+/**
+ * Поддерживает ссылки вещи на последнее и ближайшее подтверждённые бронирования.
+ * Пересчёт идёт под блокировкой строки вещи, чтобы параллельные подтверждения не затирали друг друга.
+ */
+@Slf4j
+@Transactional
+@Component
+@RequiredArgsConstructor
+public class ItemBookingPointers {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    @EventListener
+    public void onBookingUpdated(BookingUpdatedEvent event) {
+        if (event.status() == BookingStatus.APPROVED) {
+            refresh(event.itemId());
+        }
+    }
+
+    @EventListener
+    public void onBookingStarted(BookingStartedEvent event) {
+        refresh(event.itemId());
+    }
+
+    public void refresh(Long itemId) {
+        itemRepository.findByIdForUpdate(itemId).ifPresent(item -> refresh(item, LocalDateTime.now()));
+    }
+
+    private void refresh(Item item, LocalDateTime thisMoment) {
+        item.setLastBooking(bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(item.getId(),
+                thisMoment, BookingStatus.APPROVED, Sort.by(DESC, "end")).orElse(null));
+        item.setNextBooking(bookingRepository.findFirstByItemIdAndStartAfterAndStatus(item.getId(),
+                thisMoment, BookingStatus.APPROVED, Sort.by(ASC, "end")).orElse(null));
+        log.debug("Обновлены ссылки на бронирования вещи с Id {}", item.getId());
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переводит начавшиеся бронирования из ближайших в последние. Подстраховывает события
+ * планировщика бронирований, например после перезапуска.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.booking-rollover.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemBookingRollover {
+    private final ItemRepository itemRepository;
+    private final ItemBookingPointers itemBookingPointers;
+
+    @Scheduled(fixedDelayString = "${shareit.item.booking-rollover.delay-millis:60000}")
+    public void rollover() {
+        List<Long> itemIds = itemRepository.findIdsByNextBookingStartNotAfter(LocalDateTime.now());
+        for (Long itemId : itemIds) {
+            itemBookingPointers.refresh(itemId);
+        }
+        if (!itemIds.isEmpty()) {
+            log.info("Обновлены ссылки на бронирования у {} вещей", itemIds.size());
+        }
+    }
+}
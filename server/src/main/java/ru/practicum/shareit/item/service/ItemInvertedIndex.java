@@ -0,0 +1,366 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Обратный индекс доступных вещей в памяти процесса: упорядоченный словарь основ слов названия
+ * и описания со списками номеров вещей. Запрос находит вещи, содержащие все его основы, в порядке номеров.
+ * Пока индекс заполняется из базы, изменения вещей применяются сразу, а строки начальной загрузки
+ * для уже изменённых вещей пропускаются. Номера в списках хранятся как int: если номер вещи не помещается
+ * в int, индекс очищается и больше не становится готовым, а поиск идёт через базу данных.
+ */
+@Slf4j
+@Component
+public class ItemInvertedIndex {
+    private static final String[] NO_TERMS = new String[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Integer, String[]> documents = new HashMap<>();
+    private final Set<Integer> changedWhileLoading = new HashSet<>();
+    private volatile boolean ready;
+    private boolean overflowed;
+
+    public void put(Long itemId, String name, String description, boolean available) {
+        if (itemId > Integer.MAX_VALUE) {
+            overflow(itemId);
+            return;
+        }
+        int id = itemId.intValue();
+        String[] terms = available ? analyze(name, description) : NO_TERMS;
+        lock.writeLock().lock();
+        try {
+            if (overflowed) {
+                return;
+            }
+            if (!ready) {
+                changedWhileLoading.add(id);
+            }
+            replace(id, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Строка начальной загрузки, только для доступных вещей.
+     */
+    public void load(Long itemId, String name, String description) {
+        if (itemId > Integer.MAX_VALUE) {
+            overflow(itemId);
+            return;
+        }
+        int id = itemId.intValue();
+        String[] terms = analyze(name, description);
+        lock.writeLock().lock();
+        try {
+            if (!overflowed && !changedWhileLoading.contains(id)) {
+                replace(id, terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading.clear();
+            ready = !overflowed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Номера вещей, содержащих все основы слов запроса, по возрастанию начиная с offset-го совпадения.
+     */
+    public List<Long> search(String text, int offset, int limit) {
+        return search(text, 0, offset, limit);
+    }
+
+    /**
+     * То же с допуском опечаток: основа запроса совпадает с любым термом словаря на расстоянии
+     * Левенштейна не больше maxEdits. Для коротких основ допуск уменьшается, иначе слово из трёх букв
+     * совпало бы с заметной частью словаря.
+     */
+    public List<Long> search(String text, int maxEdits, int offset, int limit) {
+        List<String> terms = ItemTextAnalyzer.terms(text);
+        List<Long> ids = new ArrayList<>();
+        if (terms.isEmpty() || limit <= 0) {
+            return ids;
+        }
+        lock.readLock().lock();
+        try {
+            List<Matches> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                List<PostingList> lists = new ArrayList<>();
+                for (String found : expandLocked(term, Math.min(maxEdits, allowedEdits(term)))) {
+                    lists.add(postings.get(found));
+                }
+                if (lists.isEmpty()) {
+                    return ids;
+                }
+                matches.add(lists.size() == 1 ? new Single(lists.get(0)) : new Union(lists));
+            }
+            matches.sort(Comparator.comparingLong(Matches::cost));
+            Matches lead = matches.get(0);
+            int skip = offset;
+            int candidate = lead.next();
+            while (candidate >= 0) {
+                int found = candidate;
+                for (int i = 1; i < matches.size() && found == candidate; i++) {
+                    found = matches.get(i).seek(candidate);
+                }
+                if (found < 0) {
+                    break;
+                }
+                if (found != candidate) {
+                    candidate = lead.seek(found);
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    ids.add((long) candidate);
+                    if (ids.size() == limit) {
+                        break;
+                    }
+                }
+                candidate = lead.next();
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Термы словаря на расстоянии не больше maxEdits от term. Словарь обходится по порядку вместе
+     * с автоматом Левенштейна; состояния для общего с предыдущим термом префикса переиспользуются,
+     * а если префикс уже не может совпасть, все термы с этим префиксом пропускаются одним переходом.
+     */
+    public List<String> expand(String term, int maxEdits) {
+        lock.readLock().lock();
+        try {
+            return expandLocked(term, maxEdits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> expandLocked(String term, int maxEdits) {
+        if (maxEdits <= 0) {
+            return postings.containsKey(term) ? List.of(term) : List.of();
+        }
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(term, maxEdits);
+        List<int[]> states = new ArrayList<>();
+        states.add(automaton.start());
+        List<String> found = new ArrayList<>();
+        String previous = "";
+        String key = postings.isEmpty() ? null : postings.firstKey();
+        while (key != null) {
+            int depth = commonPrefix(previous, key);
+            boolean dead = false;
+            while (depth < key.length()) {
+                int[] state = automaton.step(states.get(depth), key.charAt(depth));
+                if (states.size() > depth + 1) {
+                    states.set(depth + 1, state);
+                } else {
+                    states.add(state);
+                }
+                depth++;
+                if (!automaton.canMatch(state)) {
+                    dead = true;
+                    break;
+                }
+            }
+            previous = key.substring(0, depth);
+            if (dead) {
+                key = postings.higherKey(previous + Character.MAX_VALUE);
+            } else {
+                if (automaton.isMatch(states.get(depth))) {
+                    found.add(key);
+                }
+                key = postings.higherKey(key);
+            }
+        }
+        return found;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void overflow(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            if (overflowed) {
+                return;
+            }
+            overflowed = true;
+            ready = false;
+            postings.clear();
+            documents.clear();
+            changedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.error("Номер вещи {} не помещается в индекс поиска, индекс очищен, поиск идёт через базу данных", itemId);
+    }
+
+    private void replace(int id, String[] terms) {
+        Set<String> previous = Set.of(documents.getOrDefault(id, NO_TERMS));
+        Set<String> current = Set.of(terms);
+        for (String term : previous) {
+            if (!current.contains(term)) {
+                PostingList list = postings.get(term);
+                if (list.remove(id) && list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (String term : terms) {
+            if (!previous.contains(term)) {
+                postings.computeIfAbsent(term, key -> new PostingList()).add(id);
+            }
+        }
+        if (terms.length == 0) {
+            documents.remove(id);
+        } else {
+            documents.put(id, terms);
+        }
+    }
+
+    private static int allowedEdits(String term) {
+        if (term.length() <= 2) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String[] analyze(String name, String description) {
+        List<String> terms = ItemTextAnalyzer.terms(name + " " + description);
+        return terms.toArray(NO_TERMS);
+    }
+
+    /**
+     * Возрастающая последовательность номеров вещей, подходящих под одну основу запроса.
+     */
+    private interface Matches {
+        int next();
+
+        int seek(int target);
+
+        long cost();
+    }
+
+    private static class Single implements Matches {
+        private final PostingList.Cursor cursor;
+        private final int size;
+
+        Single(PostingList list) {
+            this.cursor = list.cursor();
+            this.size = list.size();
+        }
+
+        @Override
+        public int next() {
+            return cursor.next();
+        }
+
+        @Override
+        public int seek(int target) {
+            return cursor.seek(target);
+        }
+
+        @Override
+        public long cost() {
+            return size;
+        }
+    }
+
+    /**
+     * Объединение списков для найденных с опечаткой термов. Хранит текущий номер каждого списка
+     * и отдаёт наименьший.
+     */
+    private static class Union implements Matches {
+        private final PostingList.Cursor[] cursors;
+        private final int[] heads;
+        private final long cost;
+        private int current;
+
+        Union(List<PostingList> lists) {
+            cursors = new PostingList.Cursor[lists.size()];
+            heads = new int[lists.size()];
+            long total = 0;
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = lists.get(i).cursor();
+                heads[i] = cursors[i].next();
+                total += lists.get(i).size();
+            }
+            cost = total;
+        }
+
+        @Override
+        public int next() {
+            return seek(current + 1);
+        }
+
+        @Override
+        public int seek(int target) {
+            if (target <= current) {
+                return current;
+            }
+            int min = -1;
+            for (int i = 0; i < cursors.length; i++) {
+                if (heads[i] >= 0 && heads[i] < target) {
+                    heads[i] = cursors[i].seek(target);
+                }
+                if (heads[i] >= 0 && (min < 0 || heads[i] < min)) {
+                    min = heads[i];
+                }
+            }
+            if (min >= 0) {
+                current = min;
+            }
+            return min;
+        }
+
+        @Override
+        public long cost() {
+            return cost;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Сжатое префиксное дерево названий вещей: цепочки узлов с одним потомком склеены в одно ребро
+ * со строковой меткой. Каждый узел хранит до topSize лучших по весу вещей своего поддерева, поэтому
+ * подсказка по префиксу - спуск по дереву на длину префикса без обхода поддерева. Вещь попадает в дерево
+ * под каждым словом названия, начиная с которого берётся остаток названия, так что "Дрель ударная"
+ * находится и по "дре", и по "уда". Не потокобезопасно.
+ */
+public class ItemNameTrie {
+    private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparing(Entry::name)
+            .thenComparingLong(Entry::itemId);
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int topSize;
+    private final Node root = new Node("");
+    private int nodeCount = 1;
+
+    public ItemNameTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    public void add(Entry entry) {
+        for (String key : keys(entry.name())) {
+            insert(root, key, entry);
+        }
+    }
+
+    public void remove(Entry entry) {
+        for (String key : keys(entry.name())) {
+            delete(root, key, entry.itemId());
+        }
+    }
+
+    /**
+     * До limit лучших вещей, у которых одно из слов названия начинается с prefix.
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length() && position + common < key.length()) {
+                return List.of();
+            }
+            position += common;
+            node = child;
+        }
+        return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase().replace('ё', 'е').trim().replaceAll("\\s+", " ");
+    }
+
+    private static List<String> keys(String name) {
+        String normalized = normalize(name);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private void insert(Node node, String key, Entry entry) {
+        int position = 0;
+        List<Node> path = new ArrayList<>();
+        path.add(node);
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                child = new Node(key.substring(position));
+                node.addChild(child);
+                nodeCount++;
+                node = child;
+                path.add(node);
+                break;
+            }
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length()) {
+                child = split(node, child, common);
+            }
+            position += common;
+            node = child;
+            path.add(node);
+        }
+        node.entries.add(entry);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).top = mergeTop(path.get(i));
+        }
+    }
+
+    private void delete(Node node, String key, long itemId) {
+        int position = 0;
+        List<Node> path = new ArrayList<>();
+        path.add(node);
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null || commonPrefix(child.label, key, position) < child.label.length()) {
+                return;
+            }
+            position += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        if (!node.entries.removeIf(entry -> entry.itemId() == itemId)) {
+            return;
+        }
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.entries.isEmpty() && current.children.isEmpty()) {
+                parent.removeChild(current);
+                nodeCount--;
+            } else if (current.entries.isEmpty() && current.children.size() == 1) {
+                Node only = current.children.get(0);
+                parent.removeChild(current);
+                Node merged = new Node(current.label + only.label);
+                merged.entries.addAll(only.entries);
+                merged.children.addAll(only.children);
+                merged.top = only.top;
+                parent.addChild(merged);
+                nodeCount--;
+                path.set(i, merged);
+            } else {
+                current.top = mergeTop(current);
+            }
+        }
+        root.top = mergeTop(root);
+    }
+
+    /**
+     * Делит ребро child на первые length символов и остаток.
+     */
+    private Node split(Node parent, Node child, int length) {
+        parent.removeChild(child);
+        Node middle = new Node(child.label.substring(0, length));
+        Node rest = new Node(child.label.substring(length));
+        rest.entries.addAll(child.entries);
+        rest.children.addAll(child.children);
+        rest.top = child.top;
+        middle.addChild(rest);
+        middle.top = rest.top;
+        parent.addChild(middle);
+        nodeCount++;
+        return middle;
+    }
+
+    private Entry[] mergeTop(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.entries);
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BY_WEIGHT);
+        List<Entry> top = new ArrayList<>(topSize);
+        Set<Long> itemIds = new HashSet<>();
+        for (Entry candidate : candidates) {
+            if (top.size() == topSize) {
+                break;
+            }
+            if (itemIds.add(candidate.itemId())) {
+                top.add(candidate);
+            }
+        }
+        return top.toArray(NO_ENTRIES);
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int length = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    public record Entry(long itemId, String name, long weight) {
+    }
+
+    private static final class Node {
+        private final String label;
+        private final List<Entry> entries = new ArrayList<>(1);
+        private final List<Node> children = new ArrayList<>(2);
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            for (Node child : children) {
+                if (child.label.charAt(0) == first) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            children.add(child);
+        }
+
+        private void removeChild(Node child) {
+            children.remove(child);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Выбирает способ поиска вещей по настройке shareit.item.search.mode. FULLTEXT ищет по словам и их формам
+ * через tsvector, TRIGRAM - по подстрокам и похожим словам через индексы pg_trgm. Порог похожести
+ * для TRIGRAM выставляется в PostgreSQL на время транзакции поиска. INDEX находит номера вещей
+ * в ItemInvertedIndex и читает из базы только нужную страницу, пока индекс не заполнен - ищет как FULLTEXT.
+ * Нечёткий поиск с опечатками всегда идёт по ItemInvertedIndex, поэтому при shareit.item.search.fuzzy.enabled
+ * индекс ведётся в любом режиме. По умолчанию нечёткий поиск выключен: индекс держит в куче все доступные вещи,
+ * около 800 байт на вещь (порядка 0,8 ГБ на миллион вещей), и строится при каждом старте.
+ */
+@Slf4j
+@Component
+public class ItemSearch {
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemInvertedIndex itemInvertedIndex;
+    private final ItemSearchMode mode;
+    private final String trigramThreshold;
+    private final int batchSize;
+    private final boolean fuzzyEnabled;
+    private final boolean postgres;
+
+    public ItemSearch(ItemRepository itemRepository,
+                      JdbcTemplate jdbcTemplate,
+                      ItemInvertedIndex itemInvertedIndex,
+                      @Value("${shareit.item.search.mode:FULLTEXT}") ItemSearchMode mode,
+                      @Value("${shareit.item.search.trigram-threshold:0.6}") double trigramThreshold,
+                      @Value("${shareit.item.search.index.batch-size:1000}") int batchSize,
+                      @Value("${shareit.item.search.fuzzy.enabled:false}") boolean fuzzyEnabled) {
+        if (trigramThreshold <= 0 || trigramThreshold > 1) {
+            throw new IllegalArgumentException("Порог похожести должен быть в интервале (0, 1]");
+        }
+        this.itemRepository = itemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.itemInvertedIndex = itemInvertedIndex;
+        this.mode = mode;
+        this.trigramThreshold = String.valueOf(trigramThreshold);
+        this.batchSize = batchSize;
+        this.fuzzyEnabled = fuzzyEnabled;
+        this.postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+        log.info("Поиск вещей в режиме {}", mode);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!isIndexed()) {
+            return;
+        }
+        long afterId = 0;
+        List<ItemSearchDocument> documents;
+        do {
+            documents = itemRepository.findSearchDocuments(afterId, Limit.of(batchSize));
+            for (ItemSearchDocument document : documents) {
+                itemInvertedIndex.load(document.id(), document.name(), document.description());
+                afterId = document.id();
+            }
+        } while (documents.size() == batchSize);
+        itemInvertedIndex.markReady();
+        log.info("Индекс поиска вещей заполнен, вещей в индексе: {}", itemInvertedIndex.size());
+    }
+
+    /**
+     * Переносит вещь в индекс после фиксации транзакции, в которой она сохранена.
+     */
+    public void index(Item item) {
+        if (!isIndexed()) {
+            return;
+        }
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        Runnable action = () -> itemInvertedIndex.put(id, name, description, available);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public List<Item> search(String text, Pageable pageable) {
+        if (mode == ItemSearchMode.TRIGRAM) {
+            applyTrigramThreshold();
+            return itemRepository.searchByTrigram(text, pageable);
+        }
+        if (mode == ItemSearchMode.INDEX && itemInvertedIndex.isReady()) {
+            List<Long> ids = itemInvertedIndex.search(text, (int) pageable.getOffset(), pageable.getPageSize());
+            return ids.isEmpty() ? List.of() : itemRepository.findAllByIdInAndAvailableTrueOrderById(ids);
+        }
+        return itemRepository.search(text, pageable);
+    }
+
+    /**
+     * Поиск с допуском до maxEdits опечаток в каждом слове. Пока индекс не заполнен или нечёткий поиск
+     * выключен, ищет без опечаток.
+     */
+    public List<Item> searchFuzzy(String text, int maxEdits, Pageable pageable) {
+        if (!fuzzyEnabled || !itemInvertedIndex.isReady()) {
+            return search(text, pageable);
+        }
+        List<Long> ids = itemInvertedIndex.search(text, maxEdits, (int) pageable.getOffset(),
+                pageable.getPageSize());
+        return ids.isEmpty() ? List.of() : itemRepository.findAllByIdInAndAvailableTrueOrderById(ids);
+    }
+
+    public List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        if (mode == ItemSearchMode.TRIGRAM) {
+            applyTrigramThreshold();
+            return itemRepository.searchAvailableByTrigram(text, start, end, pageable);
+        }
+        if (mode == ItemSearchMode.INDEX && itemInvertedIndex.isReady()) {
+            return searchFreeInIndex(text, start, end, pageable);
+        }
+        return itemRepository.searchAvailable(text, start, end, pageable);
+    }
+
+    /**
+     * Проверяет занятость кандидатов из индекса пачками, пока не наберётся страница.
+     */
+    private List<Item> searchFreeInIndex(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        List<Item> page = new ArrayList<>(pageable.getPageSize());
+        long skip = pageable.getOffset();
+        int position = 0;
+        while (page.size() < pageable.getPageSize()) {
+            List<Long> candidates = itemInvertedIndex.search(text, position, batchSize);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            position += candidates.size();
+            for (Item item : itemRepository.findAllFreeByIdIn(candidates, start, end)) {
+                if (skip > 0) {
+                    skip--;
+                } else if (page.size() < pageable.getPageSize()) {
+                    page.add(item);
+                }
+            }
+        }
+        return page;
+    }
+
+    private boolean isIndexed() {
+        return mode == ItemSearchMode.INDEX || fuzzyEnabled;
+    }
+
+    private void applyTrigramThreshold() {
+        if (postgres) {
+            jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                    String.class, trigramThreshold);
+        }
+    }
+}
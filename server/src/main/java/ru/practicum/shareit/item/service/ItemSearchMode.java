@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.service;
+
+public enum ItemSearchMode {
+    FULLTEXT,
+    TRIGRAM,
+    INDEX
+}
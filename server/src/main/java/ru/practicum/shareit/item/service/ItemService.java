@@ -2,9 +2,12 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDtoIn;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -18,6 +21,15 @@ public interface ItemService {
 
     List<ItemDtoOut> getItemBySearch(Integer from, Integer size, String text);
 
+    List<ItemDtoOut> getItemByFuzzySearch(Integer from, Integer size, String text, Integer fuzzy);
+
+    List<ItemDtoOut> getAvailableItemBySearch(Integer from, Integer size, String text, LocalDateTime start,
+                                              LocalDateTime end);
+
+    List<ItemSuggestionDto> getSuggestions(String prefix, Integer size);
+
+    List<AvailabilityIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     ItemDtoOut update(Long itemId, ItemDtoIn itemDtoIn, Long userId);
 }
 
@@ -13,13 +13,16 @@ import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.exception.NotBookerException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
+import ru.practicum.shareit.exception.WrongDateException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
 import ru.practicum.shareit.item.comment.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDtoIn;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -27,6 +30,7 @@ import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
@@ -42,11 +46,17 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 @Service
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Duration MAX_AVAILABILITY_RANGE = Duration.ofDays(366);
+    private static final int MAX_FUZZY_EDITS = 2;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemSearch itemSearch;
+    private final ItemSuggester itemSuggester;
 
     @Transactional(readOnly = true)
     @Override
@@ -58,7 +68,7 @@ public class ItemServiceImpl implements ItemService {
         return addBookingsAndCommentsForList(items);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public ItemDtoOut getItemById(Long itemId, Long userId) {
         log.info("Получение вещи c Id {}", itemId);
@@ -88,7 +98,10 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(requestRepository.findById(requestId).orElseThrow(() ->
                     new NotFoundException(("Запрос с Id " + requestId + "не найден"))));
         }
-        return ItemMapper.toItemDtoOut(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        itemSearch.index(saved);
+        itemSuggester.put(saved);
+        return ItemMapper.toItemDtoOut(saved);
     }
 
     @Override
@@ -103,6 +116,26 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDtoOut(comment);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<AvailabilityIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Получение занятости вещи с Id {} с {} по {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new WrongDateException("Начало периода должно быть раньше его окончания");
+        }
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new WrongDateException("Период не может быть длиннее " + MAX_AVAILABILITY_RANGE.toDays() + " дней");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с Id " + itemId + " не найдена");
+        }
+        LocalDateTime thisMoment = LocalDateTime.now();
+        if (!to.isAfter(thisMoment)) {
+            return List.of();
+        }
+        return itemAvailabilityIndex.getAvailability(itemId, from.isAfter(thisMoment) ? from : thisMoment, to);
+    }
+
     @Override
     public ItemDtoOut update(Long itemId, ItemDtoIn itemDtoIn, Long userId) {
         log.info("Обновление вещи {} с Id {}", itemDtoIn.getName(), itemId);
@@ -125,6 +158,8 @@ public class ItemServiceImpl implements ItemService {
         } else {
             throw new NotOwnerException("Пользователь с ID " + userId + " не является владельцем " + name);
         }
+        itemSearch.index(item);
+        itemSuggester.put(item);
         return ItemMapper.toItemDtoOut(item);
     }
 
@@ -134,21 +169,66 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text, PageRequest.of(from / size, size)).stream()
+        return itemSearch.search(text, PageRequest.of(from / size, size)).stream()
+                .map(ItemMapper::toItemDtoOut).collect(toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDtoOut> getItemByFuzzySearch(Integer from, Integer size, String text, Integer fuzzy) {
+        log.info("Получение вещей по поиску {} с допуском {} опечаток", text, fuzzy);
+        if (fuzzy < 1 || fuzzy > MAX_FUZZY_EDITS) {
+            throw new IllegalArgumentException("Допуск опечаток должен быть от 1 до " + MAX_FUZZY_EDITS);
+        }
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return itemSearch.searchFuzzy(text, fuzzy, PageRequest.of(from / size, size)).stream()
+                .map(ItemMapper::toItemDtoOut).collect(toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemSuggestionDto> getSuggestions(String prefix, Integer size) {
+        log.info("Получение подсказок по началу названия {}", prefix);
+        if (size < 1 || size > ItemSuggester.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Число подсказок должно быть от 1 до " + ItemSuggester.MAX_SUGGESTIONS);
+        }
+        if (prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return itemSuggester.suggest(prefix, size).stream()
+                .map(entry -> new ItemSuggestionDto(entry.itemId(), entry.name())).collect(toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDtoOut> getAvailableItemBySearch(Integer from, Integer size, String text, LocalDateTime start,
+                                                     LocalDateTime end) {
+        log.info("Получение вещей по поиску {}, свободных с {} по {}", text, start, end);
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new WrongDateException("Нужно указать начало и окончание периода, начало раньше окончания");
+        }
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return itemSearch.searchAvailable(text, start, end, PageRequest.of(from / size, size, Sort.by("id")))
+                .stream()
                 .map(ItemMapper::toItemDtoOut).collect(toList());
     }
 
     private List<ItemDtoOut> addBookingsAndCommentsForList(List<Item> items) {
         LocalDateTime thisMoment = LocalDateTime.now();
+        List<Item> rolledOver = items.stream().filter(item -> isRolledOver(item, thisMoment)).toList();
 
-        Map<Item, Booking> itemsWithLastBookings = bookingRepository
-                .findByItemInAndStartLessThanEqualAndStatus(items, thisMoment,
+        Map<Item, Booking> itemsWithLastBookings = rolledOver.isEmpty() ? Map.of() : bookingRepository
+                .findByItemInAndStartLessThanEqualAndStatus(rolledOver, thisMoment,
                         BookingStatus.APPROVED, Sort.by(DESC, "end"))
                 .stream()
                 .collect(Collectors.toMap(Booking::getItem, Function.identity(), (o1, o2) -> o1));
 
-        Map<Item, Booking> itemsWithNextBookings = bookingRepository
-                .findByItemInAndStartAfterAndStatus(items, thisMoment,
+        Map<Item, Booking> itemsWithNextBookings = rolledOver.isEmpty() ? Map.of() : bookingRepository
+                .findByItemInAndStartAfterAndStatus(rolledOver, thisMoment,
                         BookingStatus.APPROVED, Sort.by(ASC, "end"))
                 .stream()
                 .collect(Collectors.toMap(Booking::getItem, Function.identity(), (o1, o2) -> o1));
@@ -161,12 +241,16 @@ public class ItemServiceImpl implements ItemService {
         List<ItemDtoOut> itemDtoOuts = new ArrayList<>();
         for (Item item : items) {
             ItemDtoOut itemDtoOut = ItemMapper.toItemDtoOut(item);
-            Booking lastBooks = itemsWithLastBookings.get(item);
-            if (itemsWithLastBookings.size() > 0 && lastBooks != null) {
+            Booking lastBooks = item.getLastBooking();
+            Booking nextBooks = item.getNextBooking();
+            if (isRolledOver(item, thisMoment)) {
+                lastBooks = itemsWithLastBookings.get(item);
+                nextBooks = itemsWithNextBookings.get(item);
+            }
+            if (lastBooks != null) {
                 itemDtoOut.setLastBooking(BookingMapper.toBookingDto(lastBooks));
             }
-            Booking nextBooks = itemsWithNextBookings.get(item);
-            if (itemsWithNextBookings.size() > 0 && nextBooks != null) {
+            if (nextBooks != null) {
                 itemDtoOut.setNextBooking(BookingMapper.toBookingDto(nextBooks));
             }
 
@@ -186,17 +270,20 @@ public class ItemServiceImpl implements ItemService {
 
         LocalDateTime thisMoment = LocalDateTime.now();
         if (itemDtoOut.getOwner().getId().equals(userId)) {
-            itemDtoOut.setLastBooking(bookingRepository
-                    .findFirstByItemIdAndStartLessThanEqualAndStatus(itemDtoOut.getId(), thisMoment,
-                            BookingStatus.APPROVED, Sort.by(DESC, "end"))
-                    .map(BookingMapper::toBookingDto)
-                    .orElse(null));
-
-            itemDtoOut.setNextBooking(bookingRepository
-                    .findFirstByItemIdAndStartAfterAndStatus(itemDtoOut.getId(), thisMoment,
-                            BookingStatus.APPROVED, Sort.by(ASC, "end"))
-                    .map(BookingMapper::toBookingDto)
-                    .orElse(null));
+            Booking lastBooking = item.getLastBooking();
+            Booking nextBooking = item.getNextBooking();
+            if (isRolledOver(item, thisMoment)) {
+                lastBooking = bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(item.getId(),
+                        thisMoment, BookingStatus.APPROVED, Sort.by(DESC, "end")).orElse(null);
+                nextBooking = bookingRepository.findFirstByItemIdAndStartAfterAndStatus(item.getId(),
+                        thisMoment, BookingStatus.APPROVED, Sort.by(ASC, "end")).orElse(null);
+            }
+            if (lastBooking != null) {
+                itemDtoOut.setLastBooking(BookingMapper.toBookingDto(lastBooking));
+            }
+            if (nextBooking != null) {
+                itemDtoOut.setNextBooking(BookingMapper.toBookingDto(nextBooking));
+            }
         }
 
         itemDtoOut.setComments(commentRepository.findAllByItemId(itemDtoOut.getId())
@@ -207,6 +294,14 @@ public class ItemServiceImpl implements ItemService {
         return itemDtoOut;
     }
 
+    /**
+     * Ближайшее бронирование уже началось, а фоновое обновление ссылок ещё не прошло. Такие вещи
+     * читаются живыми запросами, ссылки переписывают ItemBookingRollover и события начала бронирований.
+     */
+    private boolean isRolledOver(Item item, LocalDateTime thisMoment) {
+        return item.getNextBooking() != null && !item.getNextBooking().getStart().isAfter(thisMoment);
+    }
+
     private User getUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Пользователь с Id " + userId + " не найден"));
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодически перестраивает дерево подсказок, чтобы подтянуть новые счётчики бронирований.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.suggest.rebuild.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemSuggestRebuilder {
+    private final ItemSuggester itemSuggester;
+
+    @Scheduled(fixedDelayString = "${shareit.item.suggest.rebuild.delay-millis:600000}",
+            initialDelayString = "${shareit.item.suggest.rebuild.delay-millis:600000}")
+    public void rebuild() {
+        itemSuggester.rebuild();
+    }
+}
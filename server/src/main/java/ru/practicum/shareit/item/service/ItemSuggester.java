@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSuggestSource;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подсказки по началу названия доступных вещей из ItemNameTrie, популярные вещи (по числу неотклонённых
+ * бронирований) идут первыми. Дерево целиком перестраивается из базы при старте и по расписанию
+ * в ItemSuggestRebuilder, изменения вещей применяются к нему сразу после фиксации транзакции. Правки,
+ * пришедшие во время перестройки, повторяются на новом дереве перед заменой. Число бронирований
+ * обновляется только при перестройке.
+ */
+@Slf4j
+@Component
+public class ItemSuggester {
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final ItemRepository itemRepository;
+    private final int batchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private ItemNameTrie trie = new ItemNameTrie(MAX_SUGGESTIONS);
+    private Map<Long, ItemNameTrie.Entry> entries = new HashMap<>();
+    private List<Delta> pending;
+
+    public ItemSuggester(ItemRepository itemRepository,
+                         @Value("${shareit.item.suggest.batch-size:1000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ItemNameTrie built = new ItemNameTrie(MAX_SUGGESTIONS);
+        Map<Long, ItemNameTrie.Entry> builtEntries = new HashMap<>();
+        try {
+            long afterId = 0;
+            List<ItemSuggestSource> sources;
+            do {
+                sources = itemRepository.findSuggestSources(afterId, Limit.of(batchSize));
+                for (ItemSuggestSource source : sources) {
+                    ItemNameTrie.Entry entry = new ItemNameTrie.Entry(source.id(), source.name(), source.bookings());
+                    built.add(entry);
+                    builtEntries.put(source.id(), entry);
+                    afterId = source.id();
+                }
+            } while (sources.size() == batchSize);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Delta delta : pending) {
+                apply(built, builtEntries, delta);
+            }
+            pending = null;
+            trie = built;
+            entries = builtEntries;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Дерево подсказок названий вещей перестроено, вещей: {}, узлов: {}",
+                builtEntries.size(), built.nodeCount());
+    }
+
+    public List<ItemNameTrie.Entry> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(trie.suggest(prefix, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Переносит изменения вещи в дерево после фиксации транзакции, в которой она сохранена.
+     */
+    public void put(Item item) {
+        Delta delta = new Delta(item.getId(), item.getName(), Boolean.TRUE.equals(item.getAvailable()));
+        Runnable action = () -> {
+            lock.writeLock().lock();
+            try {
+                apply(trie, entries, delta);
+                if (pending != null) {
+                    pending.add(delta);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void apply(ItemNameTrie trie, Map<Long, ItemNameTrie.Entry> entries, Delta delta) {
+        ItemNameTrie.Entry previous = entries.remove(delta.id());
+        if (previous != null) {
+            trie.remove(previous);
+        }
+        if (delta.available()) {
+            ItemNameTrie.Entry entry = new ItemNameTrie.Entry(delta.id(), delta.name(),
+                    previous == null ? 0 : previous.weight());
+            trie.add(entry);
+            entries.put(delta.id(), entry);
+        }
+    }
+
+    private record Delta(Long id, String name, boolean available) {
+    }
+}
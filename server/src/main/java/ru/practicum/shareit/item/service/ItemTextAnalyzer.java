@@ -0,0 +1,241 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разбивает текст на термы для индекса вещей: приводит к нижнему регистру, заменяет ё на е, режет по
+ * небуквенным символам и сводит слова к основе. Русские слова обрабатывает алгоритм Snowball Russian,
+ * английские - первый шаг Porter/Snowball English (множественное число, -ed, -ing).
+ */
+@UtilityClass
+public class ItemTextAnalyzer {
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ывшись", "ившись", "ывши", "ивши", "ыв", "ив"};
+    private static final String[] ADJECTIVE = {"ими", "ыми", "его", "ого", "ему", "ому", "ее", "ие", "ые", "ое",
+            "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"};
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] VERB_1 = {"ете", "йте", "ешь", "нно", "ла", "на", "ли", "ем", "ло", "но", "ет",
+            "ют", "ны", "ть", "й", "л", "н"};
+    private static final String[] VERB_2 = {"ейте", "уйте", "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло",
+            "ено", "ует", "уют", "ены", "ить", "ыть", "ишь", "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит",
+            "ыт", "ую", "ю"};
+    private static final String[] NOUN = {"иями", "ями", "ами", "ией", "иям", "ием", "иях", "ев", "ов", "ие", "ье",
+            "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья", "а", "е", "и",
+            "й", "о", "у", "ы", "ь", "ю", "я"};
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    /**
+     * Основы слов текста без повторов в порядке появления.
+     */
+    public static List<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : tokens(text)) {
+            terms.add(stem(token));
+        }
+        return new ArrayList<>(terms);
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c == 'ё' ? 'е' : c);
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    public static String stem(String token) {
+        if (token.isEmpty()) {
+            return token;
+        }
+        char first = token.charAt(0);
+        if (first >= 'а' && first <= 'я') {
+            return stemRussian(token);
+        }
+        if (first >= 'a' && first <= 'z') {
+            return stemEnglish(token);
+        }
+        return token;
+    }
+
+    private static String stemRussian(String word) {
+        int rv = 0;
+        while (rv < word.length() && !isVowel(word.charAt(rv))) {
+            rv++;
+        }
+        if (rv == word.length()) {
+            return word;
+        }
+        rv++;
+        int r2 = r2(word);
+        StringBuilder sb = new StringBuilder(word);
+
+        if (!remove(sb, rv, PERFECTIVE_GERUND_1, PERFECTIVE_GERUND_2)) {
+            remove(sb, rv, REFLEXIVE);
+            if (remove(sb, rv, ADJECTIVE)) {
+                remove(sb, rv, PARTICIPLE_1, PARTICIPLE_2);
+            } else if (!remove(sb, rv, VERB_1, VERB_2)) {
+                remove(sb, rv, NOUN);
+            }
+        }
+        remove(sb, rv, new String[]{"и"});
+        remove(sb, Math.max(rv, r2), DERIVATIONAL);
+        if (!undouble(sb, rv)) {
+            if (remove(sb, rv, SUPERLATIVE)) {
+                undouble(sb, rv);
+            } else {
+                remove(sb, rv, new String[]{"ь"});
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int r2(String word) {
+        int r1 = region(word, 0);
+        return region(word, r1);
+    }
+
+    private static int region(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    /**
+     * Удаляет самое длинное окончание из списка (списки упорядочены по убыванию длины), лежащее в области RV.
+     */
+    private static boolean remove(StringBuilder sb, int rv, String[] endings) {
+        String ending = longest(sb, rv, endings);
+        if (ending == null) {
+            return false;
+        }
+        sb.setLength(sb.length() - ending.length());
+        return true;
+    }
+
+    /**
+     * Как в Snowball, выбирает самое длинное окончание из обеих групп. Окончание первой группы удаляется,
+     * только если перед ним стоит а или я.
+     */
+    private static boolean remove(StringBuilder sb, int rv, String[] afterAOrYa, String[] endings) {
+        String first = longest(sb, rv, afterAOrYa);
+        String second = longest(sb, rv, endings);
+        if (first != null && (second == null || first.length() > second.length())) {
+            int start = sb.length() - first.length();
+            if (start - 1 < rv || sb.charAt(start - 1) != 'а' && sb.charAt(start - 1) != 'я') {
+                return false;
+            }
+            sb.setLength(start);
+            return true;
+        }
+        if (second != null) {
+            sb.setLength(sb.length() - second.length());
+            return true;
+        }
+        return false;
+    }
+
+    private static String longest(StringBuilder sb, int rv, String[] endings) {
+        for (String ending : endings) {
+            if (sb.length() - ending.length() >= rv && endsWith(sb, ending)) {
+                return ending;
+            }
+        }
+        return null;
+    }
+
+    private static boolean undouble(StringBuilder sb, int rv) {
+        if (sb.length() - 2 >= rv && endsWith(sb, "нн")) {
+            sb.setLength(sb.length() - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private static String stemEnglish(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        StringBuilder sb = new StringBuilder(word);
+        if (endsWith(sb, "sses")) {
+            sb.setLength(sb.length() - 2);
+        } else if (endsWith(sb, "ies")) {
+            sb.setLength(sb.length() - 2);
+        } else if (endsWith(sb, "s") && !endsWith(sb, "ss") && !endsWith(sb, "us")
+                && hasVowel(sb, sb.length() - 2)) {
+            sb.setLength(sb.length() - 1);
+        }
+        if (endsWith(sb, "eed")) {
+            return sb.toString();
+        }
+        for (String ending : new String[]{"ingly", "edly", "ing", "ed"}) {
+            int start = sb.length() - ending.length();
+            if (endsWith(sb, ending) && start >= 2 && hasVowel(sb, start)) {
+                sb.setLength(start);
+                if (endsWith(sb, "at") || endsWith(sb, "bl") || endsWith(sb, "iz")) {
+                    sb.append('e');
+                } else if (sb.length() >= 2 && sb.charAt(sb.length() - 1) == sb.charAt(sb.length() - 2)
+                        && "bdfgmnprt".indexOf(sb.charAt(sb.length() - 1)) >= 0) {
+                    sb.setLength(sb.length() - 1);
+                }
+                break;
+            }
+        }
+        if (sb.length() > 2 && sb.charAt(sb.length() - 1) == 'y' && !isEnglishVowel(sb.charAt(sb.length() - 2))) {
+            sb.setCharAt(sb.length() - 1, 'i');
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasVowel(CharSequence s, int end) {
+        for (int i = 0; i < end; i++) {
+            if (isEnglishVowel(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isEnglishVowel(char c) {
+        return "aeiouy".indexOf(c) >= 0;
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+
+    private static boolean endsWith(StringBuilder sb, String ending) {
+        int start = sb.length() - ending.length();
+        if (start < 0) {
+            return false;
+        }
+        for (int i = 0; i < ending.length(); i++) {
+            if (sb.charAt(start + i) != ending.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
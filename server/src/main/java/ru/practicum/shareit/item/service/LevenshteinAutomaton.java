@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.service;
+
+/**
+ * Автомат Левенштейна для слова: принимает строки на расстоянии не больше maxEdits правок.
+ * Состояние - строка таблицы расстояний до префиксов слова, значения ограничены maxEdits + 1, поэтому
+ * состояний конечное число и автомат строится по ходу чтения символов. canMatch позволяет прекратить
+ * проход, как только ни одно продолжение прочитанного префикса не может совпасть.
+ */
+public class LevenshteinAutomaton {
+    private final String word;
+    private final int maxEdits;
+
+    public LevenshteinAutomaton(String word, int maxEdits) {
+        this.word = word;
+        this.maxEdits = maxEdits;
+    }
+
+    public int[] start() {
+        int[] state = new int[word.length() + 1];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = Math.min(i, maxEdits + 1);
+        }
+        return state;
+    }
+
+    public int[] step(int[] state, char c) {
+        int[] next = new int[state.length];
+        next[0] = Math.min(state[0] + 1, maxEdits + 1);
+        for (int i = 1; i < state.length; i++) {
+            int replace = state[i - 1] + (word.charAt(i - 1) == c ? 0 : 1);
+            next[i] = Math.min(Math.min(next[i - 1] + 1, state[i] + 1), Math.min(replace, maxEdits + 1));
+        }
+        return next;
+    }
+
+    public boolean isMatch(int[] state) {
+        return state[state.length - 1] <= maxEdits;
+    }
+
+    public boolean canMatch(int[] state) {
+        for (int distance : state) {
+            if (distance <= maxEdits) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,231 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.Arrays;
+
+/**
+ * Возрастающий список номеров вещей для одного терма, разбитый на блоки не длиннее BLOCK_SIZE номеров.
+ * Блок хранит разности соседних номеров в массиве int, первым идёт сам номер. Добавление в конец -
+ * запись одной разности, вставка в середину и удаление перекодируют только свой блок. Переполненный
+ * блок делится пополам, почти пустой сливается с соседом. Курсор пропускает блоки целиком по их последнему
+ * номеру.
+ */
+public class PostingList {
+    static final int BLOCK_SIZE = 128;
+
+    private Block[] blocks = new Block[1];
+    private int blockCount;
+    private int size;
+
+    public void add(int id) {
+        if (blockCount == 0 || id > blocks[blockCount - 1].last) {
+            append(id);
+            size++;
+            return;
+        }
+        int index = findBlock(id);
+        Block block = blocks[index];
+        int[] ids = block.decode();
+        int i = Arrays.binarySearch(ids, id);
+        if (i >= 0) {
+            return;
+        }
+        i = -i - 1;
+        int[] updated = new int[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, i);
+        updated[i] = id;
+        System.arraycopy(ids, i, updated, i + 1, ids.length - i);
+        size++;
+        if (updated.length > BLOCK_SIZE) {
+            int half = updated.length / 2;
+            block.encode(Arrays.copyOfRange(updated, 0, half));
+            insertBlock(index + 1, Block.of(Arrays.copyOfRange(updated, half, updated.length)));
+        } else {
+            block.encode(updated);
+        }
+    }
+
+    public boolean remove(int id) {
+        if (blockCount == 0 || id > blocks[blockCount - 1].last) {
+            return false;
+        }
+        int index = findBlock(id);
+        Block block = blocks[index];
+        int[] ids = block.decode();
+        int i = Arrays.binarySearch(ids, id);
+        if (i < 0) {
+            return false;
+        }
+        int[] updated = new int[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, i);
+        System.arraycopy(ids, i + 1, updated, i, ids.length - i - 1);
+        size--;
+        if (updated.length == 0) {
+            removeBlock(index);
+            return true;
+        }
+        block.encode(updated);
+        if (updated.length < BLOCK_SIZE / 4) {
+            if (index + 1 < blockCount && blocks[index + 1].size + updated.length <= BLOCK_SIZE) {
+                merge(index);
+            } else if (index > 0 && blocks[index - 1].size + updated.length <= BLOCK_SIZE) {
+                merge(index - 1);
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    int[] decode() {
+        int[] ids = new int[size];
+        int position = 0;
+        for (int b = 0; b < blockCount; b++) {
+            int[] blockIds = blocks[b].decode();
+            System.arraycopy(blockIds, 0, ids, position, blockIds.length);
+            position += blockIds.length;
+        }
+        return ids;
+    }
+
+    private void append(int id) {
+        Block tail = blockCount == 0 ? null : blocks[blockCount - 1];
+        if (tail == null || tail.size == BLOCK_SIZE) {
+            insertBlock(blockCount, Block.of(new int[]{id}));
+        } else {
+            tail.append(id);
+        }
+    }
+
+    /**
+     * Первый блок, последний номер которого не меньше id. Вызывается, только если id не больше
+     * последнего номера списка.
+     */
+    private int findBlock(int id) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (blocks[middle].last < id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void merge(int index) {
+        int[] left = blocks[index].decode();
+        int[] right = blocks[index + 1].decode();
+        int[] merged = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, merged, left.length, right.length);
+        blocks[index].encode(merged);
+        removeBlock(index + 1);
+    }
+
+    private void insertBlock(int index, Block block) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blocks.length * 2);
+        }
+        System.arraycopy(blocks, index, blocks, index + 1, blockCount - index);
+        blocks[index] = block;
+        blockCount++;
+    }
+
+    private void removeBlock(int index) {
+        System.arraycopy(blocks, index + 1, blocks, index, blockCount - index - 1);
+        blocks[--blockCount] = null;
+    }
+
+    private static class Block {
+        private int[] gaps = new int[2];
+        private int size;
+        private int last;
+
+        static Block of(int[] ids) {
+            Block block = new Block();
+            block.encode(ids);
+            return block;
+        }
+
+        void append(int id) {
+            if (size == gaps.length) {
+                gaps = Arrays.copyOf(gaps, Math.min(BLOCK_SIZE, gaps.length + (gaps.length >> 1) + 1));
+            }
+            gaps[size++] = id - last;
+            last = id;
+        }
+
+        int[] decode() {
+            int[] ids = new int[size];
+            int id = 0;
+            for (int i = 0; i < size; i++) {
+                id += gaps[i];
+                ids[i] = id;
+            }
+            return ids;
+        }
+
+        void encode(int[] ids) {
+            gaps = new int[Math.max(2, ids.length)];
+            size = ids.length;
+            last = 0;
+            for (int i = 0; i < ids.length; i++) {
+                gaps[i] = ids[i] - last;
+                last = ids[i];
+            }
+        }
+    }
+
+    /**
+     * Последовательный проход по списку. Номера вещей положительны, -1 означает конец списка.
+     */
+    public class Cursor {
+        private int block;
+        private int index;
+        private int current;
+
+        public int next() {
+            while (block < blockCount) {
+                Block entry = blocks[block];
+                if (index < entry.size) {
+                    current = index == 0 ? entry.gaps[0] : current + entry.gaps[index];
+                    index++;
+                    return current;
+                }
+                block++;
+                index = 0;
+            }
+            return -1;
+        }
+
+        /**
+         * Первый номер не меньше target, начиная с текущей позиции.
+         */
+        public int seek(int target) {
+            if (current >= target) {
+                return current;
+            }
+            while (block < blockCount && blocks[block].last < target) {
+                block++;
+                index = 0;
+            }
+            while (current < target) {
+                if (next() < 0) {
+                    return -1;
+                }
+            }
+            return current;
+        }
+    }
+}
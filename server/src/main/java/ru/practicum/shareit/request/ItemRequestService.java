@@ -20,6 +20,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
@@ -71,11 +72,18 @@ public class ItemRequestService {
 
     private List<ItemRequestDtoOut> addItems(List<ItemRequest> requests) {
         final List<ItemRequestDtoOut> requestsOut = new ArrayList<>();
+        if (requests.isEmpty()) {
+            return requestsOut;
+        }
+        Map<Long, List<ItemDtoOut>> itemsByRequest = itemRepository.findAllByRequestIdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemDtoOut, Collectors.toList())));
         for (ItemRequest request : requests) {
             ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toItemRequestDtoOut(request);
-            List<ItemDtoOut> items = itemRepository.findAllByRequestId(request.getId()).stream()
-                    .map(ItemMapper::toItemDtoOut).collect(Collectors.toList());
-            requestDtoOut.setItems(items);
+            requestDtoOut.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
             requestsOut.add(requestDtoOut);
         }
         return requestsOut;
@@ -1,40 +1,227 @@
-DROP TABLE IF EXISTS users, requests, items, bookings, comments CASCADE;
+DROP TABLE IF EXISTS users, requests, items, bookings, booking_periods, booking_events, comments CASCADE;
+DROP SEQUENCE IF EXISTS users_id_seq, requests_id_seq, items_id_seq, bookings_id_seq, comments_id_seq;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_id_seq INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) UNIQUE NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     description VARCHAR(1000) NOT NULL,
     requestor_id BIGINT REFERENCES users (id),
     created TIMESTAMP NOT NULL
 );
 
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx
+    ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx
+    ON requests (created DESC);
+
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(1012) NOT NULL,
     available BOOLEAN NOT NULL,
     owner_id BIGINT REFERENCES users (id),
-    request_id BIGINT REFERENCES requests (id)
+    request_id BIGINT REFERENCES requests (id),
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', name), 'A')
+        || setweight(to_tsvector('simple', name), 'A')
+        || setweight(to_tsvector('russian', description), 'B')
+        || setweight(to_tsvector('simple', description), 'B')
+    ) STORED
 );
 
+CREATE INDEX IF NOT EXISTS items_owner_idx
+    ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx
+    ON items (request_id);
+
+-- Поисковый документ вычисляется базой при вставке и изменении вещи, сущность Item его не читает.
+CREATE INDEX IF NOT EXISTS items_search_idx
+    ON items USING GIN (search_vector);
+
+-- Триграммные индексы для режима поиска TRIGRAM: ILIKE '%...%' и оператор <%.
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx
+    ON items USING GIN (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx
+    ON items USING GIN (description gin_trgm_ops);
+
+-- Бронирования разделены по флагу archived на горячую и архивную секции, горячая дополнительно
+-- разбита по месяцам окончания. Месячные секции создаёт BookingArchiver, он же переносит давно
+-- завершённые бронирования в архив. Первичный ключ секционированной таблицы обязан включать ключи
+-- секционирования, а ограничение исключения действует только внутри секции, поэтому уникальность id
+-- и запрет пересечений подтверждённых бронирований держит несекционированная booking_periods.
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT NOT NULL,
     start_booking TIMESTAMP NOT NULL,
     end_booking TIMESTAMP NOT NULL,
     item_id BIGINT REFERENCES items (id),
     booker_id BIGINT REFERENCES users (id),
-    status varchar(50) NOT NULL
+    owner_id BIGINT NOT NULL REFERENCES users (id),
+    status varchar(50) NOT NULL,
+    archived BOOLEAN NOT NULL DEFAULT false,
+    PRIMARY KEY (id, archived, end_booking)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE IF NOT EXISTS bookings_archive PARTITION OF bookings
+    FOR VALUES IN (true);
+
+CREATE TABLE IF NOT EXISTS bookings_hot PARTITION OF bookings
+    FOR VALUES IN (false)
+    PARTITION BY RANGE (end_booking);
+
+CREATE TABLE IF NOT EXISTS bookings_hot_default PARTITION OF bookings_hot DEFAULT;
+
+-- По строке на бронирование, ведётся триггером bookings_sync_period. Пересекаться не могут только
+-- подтверждённые бронирования горячей части.
+CREATE TABLE IF NOT EXISTS booking_periods (
+    booking_id BIGINT PRIMARY KEY,
+    item_id BIGINT,
+    period tsrange NOT NULL,
+    blocking BOOLEAN NOT NULL,
+    CONSTRAINT booking_periods_no_overlap EXCLUDE USING gist (
+        item_id WITH =,
+        period WITH &&
+    ) WHERE (blocking)
 );
 
-CREATE TABLE IF NOT EXISTS comments (
+-- Перенос строки между секциями - это удаление и вставка, поэтому удаление пропускается, если строка
+-- с тем же id осталась в bookings, а вставка обновляет уже существующую строку booking_periods.
+-- Вторая строка с тем же id в bookings - ошибка. BookingArchiver, перекладывая строки из секции
+-- по умолчанию в новую месячную, выставляет shareit.partition_move, и триггеры их не трогают.
+CREATE OR REPLACE FUNCTION bookings_sync_period() RETURNS trigger AS '
+BEGIN
+    IF current_setting(''shareit.partition_move'', true) = ''on'' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = ''DELETE'' THEN
+        IF NOT EXISTS (SELECT 1 FROM bookings WHERE id = OLD.id) THEN
+            DELETE FROM booking_periods WHERE booking_id = OLD.id;
+        END IF;
+        RETURN NULL;
+    END IF;
+    IF TG_OP = ''INSERT'' AND (SELECT count(*) FROM bookings WHERE id = NEW.id) > 1 THEN
+        RAISE unique_violation USING MESSAGE = ''Бронирование с Id '' || NEW.id || '' уже существует'';
+    END IF;
+    INSERT INTO booking_periods (booking_id, item_id, period, blocking)
+    VALUES (NEW.id, NEW.item_id, tsrange(NEW.start_booking, NEW.end_booking, ''[)''),
+            NEW.status = ''APPROVED'' AND NOT NEW.archived)
+    ON CONFLICT (booking_id) DO UPDATE
+        SET item_id = EXCLUDED.item_id, period = EXCLUDED.period, blocking = EXCLUDED.blocking;
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+CREATE TRIGGER bookings_sync_period
+    AFTER INSERT OR UPDATE OR DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION bookings_sync_period();
+
+CREATE INDEX IF NOT EXISTS bookings_item_period_idx
+    ON bookings USING gist (item_id, tsrange(start_booking, end_booking, '[]'));
+
+CREATE INDEX IF NOT EXISTS bookings_booker_period_idx
+    ON bookings USING gist (booker_id, tsrange(start_booking, end_booking, '[]'));
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx
+    ON bookings (booker_id, start_booking DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx
+    ON bookings (booker_id, status, start_booking DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx
+    ON bookings (item_id, status, start_booking);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_item_end_idx
+    ON bookings (booker_id, item_id, end_booking);
+
+CREATE INDEX IF NOT EXISTS bookings_owner_period_idx
+    ON bookings USING gist (owner_id, tsrange(start_booking, end_booking, '[]'));
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx
+    ON bookings (owner_id, start_booking DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx
+    ON bookings (owner_id, status, start_booking DESC, id DESC);
+
+-- Приложение владельца вещи не меняет. Смена владельца напрямую в базе переносится на бронирования,
+-- но в журнал booking_events не пишется, и модели чтения по журналу её не учитывают.
+CREATE OR REPLACE FUNCTION bookings_sync_owner() RETURNS trigger AS '
+BEGIN
+    UPDATE bookings SET owner_id = NEW.owner_id WHERE item_id = NEW.id;
+    RETURN NEW;
+END;
+' LANGUAGE plpgsql;
+
+CREATE TRIGGER items_owner_sync
+    AFTER UPDATE OF owner_id ON items
+    FOR EACH ROW WHEN (OLD.owner_id IS DISTINCT FROM NEW.owner_id)
+    EXECUTE FUNCTION bookings_sync_owner();
+
+-- На секционированную таблицу нельзя сослаться внешним ключом, поэтому ON DELETE SET NULL для ссылок
+-- вещи на бронирования сделан триггером. Перенос строки между секциями тоже удаляет её из исходной секции,
+-- такие удаления пропускаются.
+CREATE OR REPLACE FUNCTION bookings_clear_item_pointers() RETURNS trigger AS '
+BEGIN
+    IF current_setting(''shareit.partition_move'', true) IS DISTINCT FROM ''on''
+            AND NOT EXISTS (SELECT 1 FROM bookings WHERE id = OLD.id) THEN
+        UPDATE items SET last_booking_id = NULL WHERE last_booking_id = OLD.id;
+        UPDATE items SET next_booking_id = NULL WHERE next_booking_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+CREATE TRIGGER bookings_clear_item_pointers
+    AFTER DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION bookings_clear_item_pointers();
+
+CREATE INDEX IF NOT EXISTS items_last_booking_idx
+    ON items (last_booking_id);
+
+CREATE INDEX IF NOT EXISTS items_next_booking_idx
+    ON items (next_booking_id);
+
+-- Журнал изменений бронирований только дополняется; ссылок на bookings нет, чтобы записи
+-- переживали перенос и удаление бронирований.
+CREATE TABLE IF NOT EXISTS booking_events (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    start_booking TIMESTAMP NOT NULL,
+    end_booking TIMESTAMP NOT NULL,
+    created TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS booking_events_booking_idx
+    ON booking_events (booking_id);
+
+CREATE TABLE IF NOT EXISTS comments (
+    id BIGINT PRIMARY KEY,
     text VARCHAR(1000) NOT NULL,
     item_id BIGINT REFERENCES items (id),
     author_id BIGINT REFERENCES users (id),
     created TIMESTAMP NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx
+    ON comments (item_id, created);
@@ -0,0 +1,52 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Результат замера профиля perf: одна строка в журнале вида "имя: ключ=значение, ...".
+ * Замеры лежат в src/perf/java и собираются только в профиле, по умолчанию на базе PostgreSQL
+ * из application.properties: mvn test -pl server -Pperf [-Dtest=ItemLockBenchmark]
+ */
+@Slf4j
+public final class PerfReport {
+    private final String name;
+    private final StringJoiner values = new StringJoiner(", ");
+
+    private PerfReport(String name) {
+        this.name = name;
+    }
+
+    public static PerfReport of(String name) {
+        return new PerfReport(name);
+    }
+
+    public PerfReport with(String key, long value) {
+        values.add(key + "=" + value);
+        return this;
+    }
+
+    public PerfReport with(String key, double value) {
+        values.add(key + "=" + String.format(Locale.ROOT, "%.3f", value));
+        return this;
+    }
+
+    public PerfReport with(String key, Object value) {
+        values.add(key + "=" + value);
+        return this;
+    }
+
+    public void log() {
+        log.info("{}: {}", name, values);
+    }
+
+    public static double millisPerOperation(long startedNanos, long operations) {
+        return (System.nanoTime() - startedNanos) / 1e6 / operations;
+    }
+
+    public static double microsPerOperation(long startedNanos, long operations) {
+        return (System.nanoTime() - startedNanos) / 1e3 / operations;
+    }
+}
@@ -0,0 +1,270 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingReadRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы запросов репозиториев в PostgreSQL. Каждый SELECT, выполненный репозиторием, перед выполнением
+ * объясняется на том же соединении с теми же параметрами. База наполнена десятками тысяч строк со всеми
+ * внешними ключами, индексами и секциями из schema.sql и проанализирована. Проверяется, что условия
+ * запросов к таблицам и секциям больше LARGE_TABLE строк отбираются индексом: полный просмотр с фильтром
+ * значит, что индекса для условия нет. Полный просмотр без фильтра (например, сторона хеш-соединения)
+ * планировщик выбирает по стоимости, и он не проверяется.
+ */
+@SpringBootTest
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanPostgresTest {
+    private static final int USERS = 50_000;
+    private static final int ITEMS = 50_000;
+    private static final int BOOKINGS = 300_000;
+    private static final long LARGE_TABLE = 1_000;
+    private static final Pattern FILTERED_SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+).*\n\\s*Filter:");
+    private static final Pageable PAGE = PageRequest.of(0, 10,
+            Sort.by("start").descending().and(Sort.by("id").descending()));
+    private static final List<ExplainedQuery> QUERIES = new CopyOnWriteArrayList<>();
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingReadRepository bookingReadRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+                "SELECT u, 'user' || u, 'user' || u || '@plan.ru' FROM generate_series(1, ?) u", USERS);
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) " +
+                "SELECT r, 'request' || r, r % ? + 1, ? - r * interval '1 hour' FROM generate_series(1, ?) r",
+                USERS, now, USERS);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, request_id) " +
+                "SELECT i, CASE i % 200 WHEN 0 THEN 'Дрель ' WHEN 1 THEN 'Палатка ' ELSE 'Вещь ' END " +
+                "|| substr(md5(i::text), 1, 8), 'Описание вещи ' || i, " +
+                "i % 5 <> 0, i % ? + 1, CASE WHEN i % 4 = 0 THEN i % ? + 1 END FROM generate_series(1, ?) i",
+                USERS, USERS, ITEMS);
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "SELECT c, 'comment' || c, c % ? + 1, c % ? + 1, ? - c * interval '1 minute' " +
+                "FROM generate_series(1, ?) c", ITEMS, USERS, now, ITEMS);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_booking, end_booking, item_id, booker_id, owner_id, " +
+                "status, archived) " +
+                "SELECT b, ? + (b / ?) * interval '40 days', ? + (b / ?) * interval '40 days' + interval '2 days', " +
+                "b % ? + 1, (b * 7) % ? + 1, (b % ? + 1) % ? + 1, " +
+                "(ARRAY['WAITING', 'APPROVED', 'REJECTED'])[b % 3 + 1], b / ? = 0 " +
+                "FROM generate_series(0, ? - 1) b",
+                now.minusDays(200), ITEMS, now.minusDays(200), ITEMS, ITEMS, USERS, ITEMS, USERS, ITEMS, BOOKINGS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @BeforeEach
+    void setUp() {
+        QUERIES.clear();
+    }
+
+    @Test
+    void bookingQueries_shouldFilterLargeTablesByIndex() {
+        Sort endDesc = Sort.by("end").descending();
+        Item item = itemRepository.findById(1L).orElseThrow();
+        Long ownerId = item.getOwner().getId();
+        Long bookerId = 8L;
+
+        bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(item.getId(), now,
+                BookingStatus.APPROVED, endDesc);
+        bookingRepository.findFirstByItemIdAndStartAfterAndStatus(item.getId(), now, BookingStatus.APPROVED,
+                endDesc);
+        bookingRepository.findByItemInAndStartLessThanEqualAndStatus(List.of(item), now, BookingStatus.APPROVED,
+                endDesc);
+        bookingRepository.findByItemInAndStartAfterAndStatus(List.of(item), now, BookingStatus.APPROVED, endDesc);
+        bookingRepository.existsByBookerIdAndItemIdAndEndBefore(bookerId, item.getId(), now);
+        bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(item.getId(),
+                EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED), now);
+
+        bookingReadRepository.findAllByBookerId(bookerId, PAGE);
+        bookingReadRepository.findAllByBookerIdAndStateCurrent(bookerId, PAGE);
+        bookingReadRepository.findAllByBookerIdAndStatePast(bookerId, PAGE);
+        bookingReadRepository.findAllByBookerIdAndStateFuture(bookerId, PAGE);
+        bookingReadRepository.findAllByBookerIdAndStatus(bookerId, BookingStatus.WAITING, PAGE);
+        bookingReadRepository.findAllByOwnerId(ownerId, PAGE);
+        bookingReadRepository.findAllByOwnerIdAndStateCurrent(ownerId, PAGE);
+        bookingReadRepository.findAllByOwnerIdAndStatePast(ownerId, PAGE);
+        bookingReadRepository.findAllByOwnerIdAndStateFuture(ownerId, PAGE);
+        bookingReadRepository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, PAGE);
+        bookingReadRepository.findAllByBookerIdAfter(bookerId, now, Long.MAX_VALUE, Limit.of(10));
+        bookingReadRepository.findAllByBookerIdAndStatusAfter(bookerId, BookingStatus.WAITING, now,
+                Long.MAX_VALUE, Limit.of(10));
+        bookingReadRepository.findAllByOwnerIdAfter(ownerId, now, Long.MAX_VALUE, Limit.of(10));
+        bookingReadRepository.findAllByOwnerIdAndStatusAfter(ownerId, BookingStatus.WAITING, now,
+                Long.MAX_VALUE, Limit.of(10));
+        bookingReadRepository.summarizeByBookerId(bookerId);
+        bookingReadRepository.summarizeByOwnerId(ownerId);
+
+        assertLargeTablesFilteredByIndex();
+    }
+
+    @Test
+    void itemCommentAndRequestQueries_shouldFilterLargeTablesByIndex() {
+        Item item = itemRepository.findById(4L).orElseThrow();
+
+        itemRepository.findAllByOwnerId(item.getOwner().getId(), PageRequest.of(0, 10));
+        itemRepository.findAllByRequestId(item.getRequest().getId());
+        itemRepository.findAllByRequestIdIn(List.of(item.getRequest().getId()));
+        commentRepository.findAllByItemId(item.getId());
+        commentRepository.findByItemIn(List.of(item), Sort.by("created").descending());
+        requestRepository.findAllByRequestorId(item.getOwner().getId(), Sort.by("created").descending());
+
+        assertLargeTablesFilteredByIndex();
+    }
+
+    @Test
+    void searchQueries_shouldFilterLargeTablesByIndex() {
+        Pageable page = PageRequest.of(0, 20);
+        LocalDateTime start = now.plusDays(1);
+        LocalDateTime end = now.plusDays(3);
+
+        itemRepository.search("дрель", page);
+        itemRepository.searchByTrigram("палат", page);
+        itemRepository.searchAvailable("дрель", start, end, page);
+        itemRepository.searchAvailableByTrigram("палат", start, end, page);
+        itemRepository.findAllFreeByIdIn(List.of(1L, 2L, 3L), start, end);
+
+        assertLargeTablesFilteredByIndex();
+    }
+
+    private void assertLargeTablesFilteredByIndex() {
+        List<ExplainedQuery> queries = List.copyOf(QUERIES);
+        assertFalse(queries.isEmpty());
+        for (ExplainedQuery query : queries) {
+            Matcher matcher = FILTERED_SEQ_SCAN.matcher(query.plan());
+            while (matcher.find()) {
+                long rows = jdbcTemplate.queryForObject("SELECT reltuples::bigint FROM pg_class WHERE relname = '"
+                        + matcher.group(1) + "'", Long.class);
+                assertTrue(rows <= LARGE_TABLE, "Полный просмотр " + matcher.group(1) + " (" + rows + " строк):\n"
+                        + query.sql() + "\n" + query.plan());
+            }
+        }
+    }
+
+    private record ExplainedQuery(String sql, String plan) {
+    }
+
+    @TestConfiguration
+    static class ExplainConfig {
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new ExplainingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Запоминает параметры подготовленных SELECT и перед выполнением объясняет запрос с ними же.
+     */
+    private static class ExplainingDataSource extends DelegatingDataSource {
+        ExplainingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement")
+                                && ((String) args[0]).stripLeading().toLowerCase().startsWith("select")) {
+                            return explaining(connection, (PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement explaining(Connection connection, PreparedStatement statement, String sql) {
+            List<Object[]> parameters = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer) {
+                            parameters.add(new Object[]{method, args});
+                        } else if (method.getName().equals("executeQuery") && args == null) {
+                            QUERIES.add(new ExplainedQuery(sql, explain(connection, sql, parameters)));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private String explain(Connection connection, String sql, List<Object[]> parameters) throws Throwable {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (Object[] parameter : parameters) {
+                    invoke(explain, (Method) parameter[0], (Object[]) parameter[1]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность и p99 сервера на пуле потоков Tomcat и на виртуальных потоках
+ * при 2000 одновременных клиентах.
+ */
+class VirtualThreadLoadBenchmark {
+    private static final int CLIENTS = Integer.getInteger("shareit.bench.clients", 2_000);
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        for (boolean virtual : new boolean[]{false, true}) {
+            run(virtual);
+        }
+    }
+
+    private void run(boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("perf")
+                .run("--server.port=0", "--spring.threads.virtual.enabled=" + virtual,
+                        "--shareit.concurrency.acquire-timeout=PT60S", "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum.shareit.PerfReport=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            User user = context.getBean(UserRepository.class)
+                    .save(User.builder().name("load").email("load@bench.ru").build());
+            Item item = context.getBean(ItemRepository.class).save(Item.builder().name("load").description("load")
+                    .available(true).owner(user).build());
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/"
+                            + item.getId()))
+                    .header("X-Sharer-User-Id", user.getId().toString())
+                    .GET()
+                    .build();
+
+            load(request, CLIENTS / 10);
+            Result result = load(request, CLIENTS);
+            PerfReport.of("VirtualThreadLoad").with("virtual", virtual).with("clients", CLIENTS)
+                    .with("req/s", result.throughput).with("p50 ms", result.percentile(0.5))
+                    .with("p99 ms", result.percentile(0.99)).with("errors", result.errors).log();
+            assertTrue(result.latencies.length > 0);
+        }
+    }
+
+    private Result load(HttpRequest request, int clients) throws InterruptedException {
+        List<long[]> latencies = new ArrayList<>();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients);
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            for (int c = 0; c < clients; c++) {
+                long[] clientLatencies = new long[REQUESTS_PER_CLIENT];
+                latencies.add(clientLatencies);
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                            long started = System.nanoTime();
+                            HttpResponse<Void> response = client.send(request,
+                                    HttpResponse.BodyHandlers.discarding());
+                            clientLatencies[i] = System.nanoTime() - started;
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                    return null;
+                });
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            done.await();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).filter(l -> l > 0).sorted().toArray();
+            return new Result(all.length / seconds, all, errors.get());
+        }
+    }
+
+    private record Result(double throughput, long[] latencies, int errors) {
+        double percentile(double p) {
+            return latencies[(int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1)] / 1e6;
+        }
+    }
+}
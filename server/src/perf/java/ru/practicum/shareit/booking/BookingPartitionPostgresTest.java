@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Секции бронирований в PostgreSQL: перенос строк из секции по умолчанию и ограничения между секциями.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingPartitionPostgresTest {
+    private final YearMonth month = YearMonth.now().plusMonths(5);
+    private final LocalDateTime monthStart = month.atDay(1).atTime(10, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingArchiver bookingArchiver;
+
+    @BeforeEach
+    void setUp() {
+        bookingArchiver = new BookingArchiver(bookingRepository, jdbcTemplate, transactionManager,
+                Duration.ofDays(365), 1000, 6);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@pg.ru'), " +
+                "(2, 'booker', 'booker@pg.ru')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) " +
+                "VALUES (1, 'item', 'pg', true, 1)");
+    }
+
+    @Test
+    void maintain_whenDefaultPartitionHoldsMonthRows_thenRowsMovedAndPointersKept() {
+        insert(1L, monthStart, monthStart.plusDays(1), "APPROVED");
+        jdbcTemplate.update("UPDATE items SET next_booking_id = 1 WHERE id = 1");
+
+        bookingArchiver.maintain();
+        bookingArchiver.maintain();
+
+        assertEquals("bookings_hot_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM")),
+                jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bookings WHERE id = 1",
+                        String.class));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT next_booking_id FROM items WHERE id = 1", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM booking_periods WHERE booking_id = 1 " +
+                "AND blocking", Integer.class));
+    }
+
+    @Test
+    void insert_whenApprovedOverlapsBookingInOtherPartition_thenRejected() {
+        bookingArchiver.maintain();
+        insert(1L, monthStart, monthStart.plusDays(1), "APPROVED");
+        insert(2L, monthStart.plusHours(2), monthStart.plusMonths(1).plusDays(1), "WAITING");
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                insert(3L, monthStart.plusHours(2), monthStart.plusMonths(1).plusDays(1), "APPROVED"));
+        assertThrows(DataIntegrityViolationException.class, () ->
+                jdbcTemplate.update("UPDATE bookings SET status = 'APPROVED' WHERE id = 2"));
+    }
+
+    @Test
+    void insert_whenIdExistsInOtherPartition_thenRejected() {
+        bookingArchiver.maintain();
+        insert(1L, monthStart, monthStart.plusDays(1), "WAITING");
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                insert(1L, monthStart.plusMonths(2), monthStart.plusMonths(2).plusDays(1), "WAITING"));
+    }
+
+    @Test
+    void archive_whenBookingMovesToArchive_thenPeriodKeptButNotBlocking() {
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(2);
+        insert(1L, longAgo, longAgo.plusDays(1), "APPROVED");
+
+        assertEquals(1, bookingArchiver.archive(LocalDateTime.now().minusYears(1)));
+
+        assertFalse(jdbcTemplate.queryForObject("SELECT blocking FROM booking_periods WHERE booking_id = 1",
+                Boolean.class));
+        jdbcTemplate.update("DELETE FROM bookings WHERE id = 1");
+        assertTrue(jdbcTemplate.queryForList("SELECT booking_id FROM booking_periods").isEmpty());
+    }
+
+    private void insert(Long id, LocalDateTime start, LocalDateTime end, String status) {
+        jdbcTemplate.update("INSERT INTO bookings (id, start_booking, end_booking, item_id, booker_id, owner_id, " +
+                "status) VALUES (?, ?, ?, 1, 2, 1, ?)", id, Timestamp.valueOf(start), Timestamp.valueOf(end), status);
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.PerfReport;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузочный замер создания бронирований при разной конкуренции за вещи.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ItemLockBenchmark {
+    private static final int THREADS = 32;
+    private static final int BOOKINGS_PER_THREAD = 50;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 16, 64})
+    void saveNewBooking_throughputByItemCount(int itemCount) throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@bench.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@bench.ru").build());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(itemRepository.save(Item.builder().name("item" + i).description("bench").available(true)
+                    .owner(owner).build()));
+        }
+        Timer waitTimer = meterRegistry.timer("shareit.booking.item.lock.wait");
+        long waitsBefore = waitTimer.count();
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        AtomicLong slot = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    long next = slot.getAndIncrement();
+                    Item item = items.get((int) (next % itemCount));
+                    LocalDateTime start = from.plusHours(next);
+                    bookingService.saveNewBooking(BookingDtoIn.builder().itemId(item.getId()).start(start)
+                            .end(start.plusMinutes(30)).build(), booker.getId());
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+
+        int total = THREADS * BOOKINGS_PER_THREAD;
+        double p99 = 0;
+        for (ValueAtPercentile percentile : waitTimer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                p99 = percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        PerfReport.of("ItemLock").with("items", itemCount).with("threads", THREADS)
+                .with("bookings/s", total / (elapsed / 1e9)).with("lock-wait p99 ms", p99)
+                .with("waits", waitTimer.count() - waitsBefore).log();
+        assertEquals(total, bookingRepository.count());
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.PerfReport;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение запросов владельца через соединение с items и через bookings.owner_id.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OwnerQueryBenchmark {
+    private static final int OWNERS = 10_000;
+    private static final int ITEMS_PER_OWNER = 3;
+    private static final int BOOKINGS = Integer.getInteger("shareit.bench.bookings", 1_000_000);
+    private static final int QUERIES = 2_000;
+    private static final Pageable PAGE = PageRequest.of(0, 10,
+            Sort.by("start").descending().and(Sort.by("id").descending()));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingReadRepository bookingReadRepository;
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= OWNERS; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@bench.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= (long) OWNERS * ITEMS_PER_OWNER; id++) {
+            items.add(new Object[]{id, "item" + id, "bench", true, (id - 1) / ITEMS_PER_OWNER + 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, owner_id) " +
+                "VALUES (?, ?, ?, ?, ?)", items);
+        Random random = new Random(42);
+        LocalDateTime from = LocalDateTime.now().minusYears(5);
+        List<Object[]> bookings = new ArrayList<>(10_000);
+        for (long id = 1; id <= BOOKINGS; id++) {
+            long itemId = random.nextInt(OWNERS * ITEMS_PER_OWNER) + 1;
+            LocalDateTime start = from.plusMinutes(random.nextInt(5 * 365 * 24 * 60));
+            bookings.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), itemId,
+                    random.nextInt(OWNERS) + 1, (itemId - 1) / ITEMS_PER_OWNER + 1, "APPROVED"});
+            if (bookings.size() == 10_000) {
+                insertBookings(bookings);
+            }
+        }
+        insertBookings(bookings);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void findAllByOwnerId_joinVersusOwnerColumn() {
+        LongFunction<List<BookingDtoOut>> viaJoin = ownerId -> entityManager.createQuery(
+                        "SELECT new ru.practicum.shareit.booking.dto.BookingDtoOut(b.id, b.start, b.end, b.status, " +
+                                "i.id, i.name, u.id, u.name) " +
+                                "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+                                "WHERE i.owner.id = ?1 " +
+                                "ORDER BY b.start DESC, b.id DESC", BookingDtoOut.class)
+                .setParameter(1, ownerId)
+                .setMaxResults(PAGE.getPageSize())
+                .getResultList();
+        LongFunction<List<BookingDtoOut>> viaOwner = ownerId -> bookingReadRepository.findAllByOwnerId(ownerId, PAGE);
+
+        for (long ownerId = 1; ownerId <= 100; ownerId++) {
+            assertEquals(run(viaJoin, ownerId), run(viaOwner, ownerId));
+        }
+        PerfReport.of("OwnerQuery").with("bookings", BOOKINGS).with("owners", OWNERS)
+                .with("join ms/query", measure(viaJoin)).with("owner_id ms/query", measure(viaOwner)).log();
+    }
+
+    private void insertBookings(List<Object[]> bookings) {
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_booking, end_booking, item_id, booker_id, " +
+                "owner_id, status) VALUES (?, ?, ?, ?, ?, ?, ?)", bookings);
+        bookings.clear();
+    }
+
+    private double measure(LongFunction<List<BookingDtoOut>> query) {
+        Random random = new Random(7);
+        long started = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            run(query, random.nextInt(OWNERS) + 1);
+        }
+        return PerfReport.millisPerOperation(started, QUERIES);
+    }
+
+    private List<BookingDtoOut> run(LongFunction<List<BookingDtoOut>> query, long ownerId) {
+        return transactionTemplate.execute(status -> query.apply(ownerId));
+    }
+}
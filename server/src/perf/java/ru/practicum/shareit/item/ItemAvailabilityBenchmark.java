@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.PerfReport;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Время ответа календаря занятости по году бронирований.
+ */
+class ItemAvailabilityBenchmark {
+    private static final int QUERIES = 200_000;
+
+    @Test
+    void getAvailability_overYearOfBookings() {
+        LocalDateTime from = LocalDateTime.now().plusHours(1);
+        Random random = new Random(42);
+        List<Booking> bookings = new ArrayList<>();
+        LocalDateTime start = from;
+        for (long id = 1; start.isBefore(from.plusYears(1)); id++) {
+            LocalDateTime end = start.plusHours(2 + random.nextInt(70));
+            bookings.add(Booking.builder().id(id).start(start).end(end).status(BookingStatus.APPROVED).build());
+            start = end.plusHours(random.nextInt(48));
+        }
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(anyLong(), any(), any()))
+                .thenReturn(bookings);
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository);
+        index.getAvailability(1L, from, from.plusYears(1));
+
+        long intervals = 0;
+        for (int i = 0; i < QUERIES / 10; i++) {
+            intervals += index.getAvailability(1L, from, from.plusYears(1)).size();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            intervals += index.getAvailability(1L, from, from.plusYears(1)).size();
+        }
+        PerfReport.of("ItemAvailability").with("bookings", bookings.size())
+                .with("year range us/query", PerfReport.microsPerOperation(started, QUERIES)).log();
+        assertTrue(intervals > 0);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.PerfReport;
+import ru.practicum.shareit.item.service.ItemInvertedIndex;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Время поиска первой страницы в обратном индексе на миллионе вещей.
+ */
+class ItemInvertedIndexBenchmark {
+    private static final int ITEMS = Integer.getInteger("shareit.bench.items", 1_000_000);
+    private static final int QUERIES = 100_000;
+    private static final String[] WORDS = {"дрель", "перфоратор", "шуруповёрт", "аккумулятор", "лестница",
+            "палатка", "велосипед", "самокат", "пила", "болгарка", "рюкзак", "спальник", "удочка", "мангал",
+            "проектор", "колонка", "гитара", "тачка", "стремянка", "генератор", "компрессор", "краскопульт",
+            "лобзик", "рубанок", "сноуборд", "лыжи", "коньки", "фотоаппарат", "штатив", "микроскоп"};
+    private static final String[] ADJECTIVES = {"ударная", "садовая", "старая", "новая", "мощная", "лёгкая",
+            "складная", "туристическая", "детская", "профессиональная", "аккумуляторная", "сетевая"};
+    private static final String[] QUERY_TEXTS = {"дрель", "дрели ударные", "палатки", "новая пила",
+            "аккумуляторный шуруповёрт", "детский велосипед", "гитара", "лыжи старые", "мощный генератор", "тачки"};
+
+    @Test
+    void search_overMillionItems() {
+        ItemInvertedIndex index = new ItemInvertedIndex();
+        Random random = new Random(42);
+        long started = System.nanoTime();
+        for (long id = 1; id <= ITEMS; id++) {
+            index.load(id, WORDS[random.nextInt(WORDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)],
+                    "Сдаю " + WORDS[random.nextInt(WORDS.length)] + ", состояние " + random.nextInt(10));
+        }
+        index.markReady();
+        double loadSeconds = (System.nanoTime() - started) / 1e9;
+
+        long found = 0;
+        for (int i = 0; i < QUERIES / 10; i++) {
+            found += index.search(QUERY_TEXTS[i % QUERY_TEXTS.length], 0, 10).size();
+        }
+        started = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            found += index.search(QUERY_TEXTS[i % QUERY_TEXTS.length], (i % 5) * 10, 10).size();
+        }
+        PerfReport.of("ItemInvertedIndex").with("items", ITEMS).with("load s", loadSeconds)
+                .with("search us/query", PerfReport.microsPerOperation(started, QUERIES)).log();
+        assertTrue(found > 0);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.PerfReport;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearch;
+import ru.practicum.shareit.item.service.ItemSearchMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение прежнего поиска через LIKE '%...%' с триграммным режимом.
+ */
+@SpringBootTest(properties = "shareit.item.search.mode=TRIGRAM")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemSearchBenchmark {
+    private static final int ITEMS = Integer.getInteger("shareit.bench.items", 5_000_000);
+    private static final int QUERIES = 200;
+    private static final Pageable PAGE = Pageable.ofSize(10);
+    private static final String[] WORDS = {"дрель", "перфоратор", "шуруповёрт", "аккумулятор", "лестница",
+            "палатка", "велосипед", "самокат", "пила", "болгарка", "рюкзак", "спальник", "удочка", "мангал",
+            "проектор", "колонка", "гитара", "тачка", "стремянка", "генератор", "компрессор", "краскопульт",
+            "лобзик", "рубанок", "сноуборд", "лыжи", "коньки", "фотоаппарат", "штатив", "микроскоп"};
+    private static final String[] ADJECTIVES = {"ударная", "садовая", "старая", "новая", "мощная", "лёгкая",
+            "складная", "туристическая", "детская", "профессиональная", "аккумуляторная", "сетевая"};
+    private static final String[] FRAGMENTS = {"дрел", "аккум", "перфор", "стремян", "палат", "фотоап", "гитар",
+            "компресс", "лобзи", "снобор"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ItemSearch itemSearch;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@bench.ru')");
+        Random random = new Random(42);
+        List<Object[]> items = new ArrayList<>(10_000);
+        for (long id = 1; id <= ITEMS; id++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            items.add(new Object[]{id, word + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + id,
+                    "Сдаю " + WORDS[random.nextInt(WORDS.length)] + ", состояние " + random.nextInt(10),
+                    random.nextInt(10) > 0});
+            if (items.size() == 10_000) {
+                insertItems(items);
+            }
+        }
+        insertItems(items);
+        if (Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())))) {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING GIN " +
+                    "(name gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING GIN " +
+                    "(description gin_trgm_ops)");
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void search_likeVersusTrigram() {
+        Function<String, List<Item>> viaLike = text -> entityManager.createQuery("SELECT i FROM Item i " +
+                        "WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
+                        "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')) " +
+                        "AND i.available = true", Item.class)
+                .setParameter(1, text)
+                .setMaxResults(PAGE.getPageSize())
+                .getResultList();
+        Function<String, List<Item>> viaTrigram = text -> itemSearch.search(text, PAGE);
+
+        for (String fragment : FRAGMENTS) {
+            assertTrue(run(viaTrigram, fragment).stream().allMatch(Item::getAvailable));
+        }
+        PerfReport.of("ItemSearch").with("items", ITEMS).with("like ms/query", measure(viaLike))
+                .with(ItemSearchMode.TRIGRAM + " ms/query", measure(viaTrigram)).log();
+    }
+
+    private void insertItems(List<Object[]> items) {
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, owner_id) " +
+                "VALUES (?, ?, ?, ?, 1)", items);
+        items.clear();
+    }
+
+    private double measure(Function<String, List<Item>> query) {
+        long started = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            run(query, FRAGMENTS[i % FRAGMENTS.length]);
+        }
+        return PerfReport.millisPerOperation(started, QUERIES);
+    }
+
+    private List<Item> run(Function<String, List<Item>> query, String text) {
+        return transactionTemplate.execute(status -> query.apply(text));
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingReadRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Быстрая проверка на H2, что запросы репозиториев не читают таблицы целиком. Планировщик H2 не похож
+ * на PostgreSQL, параметры здесь - null, а внешние ключи удалены, чтобы H2 не подставлял их индексы.
+ * Тест ловит только запросы без подходящего индекса. Планы PostgreSQL с реальными параметрами и данными,
+ * включая поиск вещей, проверяет QueryPlanPostgresTest в профиле perf.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$SqlRecorder")
+class QueryPlanTest {
+    private static final Pageable PAGE = PageRequest.of(0, 10,
+            Sort.by("start").descending().and(Sort.by("id").descending()));
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingReadRepository bookingReadRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        dropForeignKeys();
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(userRepository.save(User.builder().name("user" + i).email("user" + i + "@plan.ru").build()));
+        }
+        owner = users.get(0);
+        booker = users.get(1);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            User user = users.get(i % users.size());
+            ItemRequest request = requestRepository.save(ItemRequest.builder().description("request" + i)
+                    .requestor(user).created(now.minusHours(i)).build());
+            items.add(itemRepository.save(Item.builder().name("item" + i).description("plan")
+                    .available(true).owner(user).request(request).build()));
+            commentRepository.save(Comment.builder().item(items.get(i)).author(user).text("comment")
+                    .created(now.minusHours(i)).build());
+        }
+        item = items.get(0);
+        BookingStatus[] statuses = BookingStatus.values();
+        for (int i = 0; i < 1000; i++) {
+            LocalDateTime start = now.minusDays(500).plusDays(i);
+            bookingRepository.save(Booking.builder().item(items.get(i % items.size()))
+                    .booker(users.get(i % users.size())).status(statuses[i % statuses.length])
+                    .start(start).end(start.plusHours(2)).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void bookingQueries_shouldUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        Sort endDesc = Sort.by("end").descending();
+        Long ownerId = owner.getId();
+        Long bookerId = booker.getId();
+
+        bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(item.getId(), now,
+                BookingStatus.APPROVED, endDesc);
+        bookingRepository.findFirstByItemIdAndStartAfterAndStatus(item.getId(), now, BookingStatus.APPROVED,
+                endDesc);
+        bookingRepository.findByItemInAndStartLessThanEqualAndStatus(List.of(item), now, BookingStatus.APPROVED,
+                endDesc);
+        bookingRepository.findByItemInAndStartAfterAndStatus(List.of(item), now, BookingStatus.APPROVED, endDesc);
+        bookingRepository.existsByBookerIdAndItemIdAndEndBefore(bookerId, item.getId(), now);
+        bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(item.getId(),
+                EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED), now);
+
+        bookingReadRepository.findAllByBookerId(bookerId, PAGE);
+        bookingReadRepository.findAllByBookerIdAndStateCurrent(bookerId, PAGE);
+        bookingReadRepository.findAllByBookerIdAndStatePast(bookerId, PAGE);
+        bookingReadRepository.findAllByBookerIdAndStateFuture(bookerId, PAGE);
+        bookingReadRepository.findAllByBookerIdAndStatus(bookerId, BookingStatus.WAITING, PAGE);
+        bookingReadRepository.findAllByOwnerId(ownerId, PAGE);
+        bookingReadRepository.findAllByOwnerIdAndStateCurrent(ownerId, PAGE);
+        bookingReadRepository.findAllByOwnerIdAndStatePast(ownerId, PAGE);
+        bookingReadRepository.findAllByOwnerIdAndStateFuture(ownerId, PAGE);
+        bookingReadRepository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, PAGE);
+        bookingReadRepository.findAllByBookerIdAfter(bookerId, now, Long.MAX_VALUE, Limit.of(10));
+        bookingReadRepository.findAllByBookerIdAndStatusAfter(bookerId, BookingStatus.WAITING, now,
+                Long.MAX_VALUE, Limit.of(10));
+        bookingReadRepository.findAllByOwnerIdAfter(ownerId, now, Long.MAX_VALUE, Limit.of(10));
+        bookingReadRepository.findAllByOwnerIdAndStatusAfter(ownerId, BookingStatus.WAITING, now,
+                Long.MAX_VALUE, Limit.of(10));
+        bookingReadRepository.summarizeByBookerId(bookerId);
+        bookingReadRepository.summarizeByOwnerId(ownerId);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemCommentAndRequestQueries_shouldUseIndexes() {
+        itemRepository.findAllByOwnerId(owner.getId(), PageRequest.of(0, 10));
+        itemRepository.findAllByRequestId(item.getRequest().getId());
+        itemRepository.findAllByRequestIdIn(List.of(item.getRequest().getId()));
+        commentRepository.findAllByItemId(item.getId());
+        commentRepository.findByItemIn(List.of(item), Sort.by("created").descending());
+        requestRepository.findAllByRequestorId(booker.getId(), Sort.by("created").descending());
+
+        assertNoTableScans();
+    }
+
+    /**
+     * H2 сам индексирует внешние ключи, PostgreSQL - нет. Без них в плане остаются только объявленные индексы.
+     */
+    private void dropForeignKeys() {
+        jdbcTemplate.queryForList("SELECT TABLE_NAME, CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+                        "WHERE CONSTRAINT_TYPE = 'FOREIGN KEY'")
+                .forEach(row -> jdbcTemplate.execute("ALTER TABLE " + row.get("TABLE_NAME") +
+                        " DROP CONSTRAINT " + row.get("CONSTRAINT_NAME")));
+    }
+
+    private void assertNoTableScans() {
+        List<String> statements = List.copyOf(SqlRecorder.STATEMENTS);
+        assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), "Полный просмотр таблицы:\n" + sql + "\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoIn;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoOut;
+import ru.practicum.shareit.booking.dto.BookingBatchOutcome;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ItemIsNotAvailableException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingApproveConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@race.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@race.ru").build());
+        item = itemRepository.save(Item.builder().name("item").description("race").available(true).owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void approved_whenCalledConcurrently_thenOnlyOneDecisionWins() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            LocalDateTime start = LocalDateTime.now().plusDays(round * 2L + 1);
+            Long bookingId = bookingService.saveNewBooking(BookingDtoIn.builder().itemId(item.getId())
+                    .start(start).end(start.plusDays(1)).build(), booker.getId()).getId();
+
+            List<Object> results = approveConcurrently(bookingId);
+
+            long winners = results.stream().filter(result -> result instanceof BookingStatus).count();
+            assertEquals(1, winners);
+            BookingStatus winner = (BookingStatus) results.stream()
+                    .filter(result -> result instanceof BookingStatus).findFirst().orElseThrow();
+            results.stream().filter(result -> !(result instanceof BookingStatus))
+                    .forEach(result -> assertInstanceOf(ItemIsNotAvailableException.class, result));
+            assertEquals(winner, bookingService.getBookingById(bookingId).getStatus());
+        }
+    }
+
+    @Test
+    void approveAll_whenRacingSingleApprovals_thenEachBookingReportedUpdatedOnce() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            List<Long> bookingIds = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                LocalDateTime start = LocalDateTime.now().plusDays(round * 10L + i * 2L + 1);
+                bookingIds.add(bookingService.saveNewBooking(BookingDtoIn.builder().itemId(item.getId())
+                        .start(start).end(start.plusDays(1)).build(), booker.getId()).getId());
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch ready = new CountDownLatch(1);
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                boolean batch = t % 2 == 0;
+                Long single = bookingIds.get(t % bookingIds.size());
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    if (batch) {
+                        return bookingService.approveAll(new BookingBatchDtoIn(bookingIds, true), owner.getId())
+                                .stream()
+                                .filter(result -> result.getOutcome() == BookingBatchOutcome.UPDATED)
+                                .map(BookingBatchDtoOut::getBookingId)
+                                .toList();
+                    }
+                    try {
+                        bookingService.approved(single, true, owner.getId());
+                        return List.of(single);
+                    } catch (ItemIsNotAvailableException e) {
+                        return List.of();
+                    }
+                }));
+            }
+            ready.countDown();
+            List<Long> updated = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                updated.addAll(future.get());
+            }
+            executor.shutdown();
+
+            assertEquals(bookingIds.size(), updated.size());
+            assertEquals(Set.copyOf(bookingIds), Set.copyOf(updated));
+        }
+    }
+
+    private List<Object> approveConcurrently(Long bookingId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approve = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    return bookingService.approved(bookingId, approve, owner.getId()).getStatus();
+                } catch (RuntimeException e) {
+                    return e;
+                }
+            }));
+        }
+        ready.countDown();
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get());
+        }
+        executor.shutdown();
+        return results;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingArchiverTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingReadRepository bookingReadRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingArchiver bookingArchiver;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        bookingArchiver = new BookingArchiver(bookingRepository, jdbcTemplate, transactionManager,
+                Duration.ofDays(365), 2, 3);
+        User owner = userRepository.save(User.builder().name("owner").email("owner@archive.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@archive.ru").build());
+        item = itemRepository.save(Item.builder().name("item").description("archive").available(true)
+                .owner(owner).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void archive_shouldMoveOnlyBookingsEndedBeforeHorizonInBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> old = List.of(save(now.minusYears(3)), save(now.minusYears(2)), save(now.minusYears(2)));
+        Booking recent = save(now.minusDays(2));
+        Booking future = save(now.plusDays(3));
+
+        int archived = bookingArchiver.archive(now.minusDays(365));
+
+        assertEquals(3, archived);
+        old.forEach(booking -> assertTrue(bookingRepository.findById(booking.getId()).orElseThrow().isArchived()));
+        assertFalse(bookingRepository.findById(recent.getId()).orElseThrow().isArchived());
+        assertFalse(bookingRepository.findById(future.getId()).orElseThrow().isArchived());
+        assertEquals(0, bookingArchiver.archive(now.minusDays(365)));
+    }
+
+    @Test
+    void archive_shouldKeepArchivedBookingsInPastResults() {
+        LocalDateTime now = LocalDateTime.now();
+        save(now.minusYears(2));
+        save(now.minusDays(2));
+        save(now.plusDays(3));
+
+        bookingArchiver.archive(now.minusDays(365));
+
+        List<BookingDtoOut> past = bookingReadRepository.findAllByBookerIdAndStatePast(booker.getId(),
+                PageRequest.of(0, 10));
+        List<BookingDtoOut> future = bookingReadRepository.findAllByBookerIdAndStateFuture(booker.getId(),
+                PageRequest.of(0, 10));
+        assertEquals(2, past.size());
+        assertEquals(1, future.size());
+    }
+
+    private Booking save(LocalDateTime end) {
+        return bookingRepository.save(Booking.builder().item(item).booker(booker).status(BookingStatus.APPROVED)
+                .start(end.minusDays(1)).end(end).build());
+    }
+}
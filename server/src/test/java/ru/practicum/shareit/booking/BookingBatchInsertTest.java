@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BookingBatchInsertTest {
+    private static final int BOOKINGS = 1000;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@batch.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@batch.ru").build());
+        item = itemRepository.save(Item.builder().name("item").description("batch").available(true).owner(owner)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void saveAll_shouldInsertThousandBookingsInBatches() {
+        long unbatched = insertBookings(1, LocalDateTime.now().plusYears(1));
+        long batched = insertBookings(50, LocalDateTime.now().plusYears(10));
+
+        assertTrue(unbatched >= BOOKINGS, "Без пакетов: " + unbatched);
+        assertTrue(batched <= 2 * BOOKINGS / 50, "С пакетами: " + batched);
+        assertEquals(2 * BOOKINGS, bookingRepository.count());
+    }
+
+    private long insertBookings(int batchSize, LocalDateTime from) {
+        entityManager.clear();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(Booking.builder().item(entityManager.getReference(Item.class, item.getId()))
+                    .booker(entityManager.getReference(User.class, booker.getId()))
+                    .status(BookingStatus.WAITING)
+                    .start(from.plusDays(i)).end(from.plusDays(i).plusHours(1)).build());
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        bookingRepository.saveAll(bookings);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
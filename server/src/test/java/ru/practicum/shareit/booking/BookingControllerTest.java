@@ -7,11 +7,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoIn;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoOut;
+import ru.practicum.shareit.booking.dto.BookingBatchOutcome;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDtoShort;
 
@@ -23,6 +31,8 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -31,6 +41,9 @@ public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingExportService bookingExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -84,6 +97,43 @@ public class BookingControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(bookingDtoOut)));
     }
 
+    @Test
+    void getSummaryByOwner() throws Exception {
+        BookingSummaryDto summary = new BookingSummaryDto(6L, 1L, 2L, 3L, 2L, 1L);
+        when(bookingService.getSummaryByOwner(anyLong())).thenReturn(summary);
+
+        mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(summary)));
+    }
+
+    @Test
+    void exportByBooker() throws Exception {
+        when(bookingExportService.exportByBooker(anyLong()))
+                .thenReturn(out -> out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void exportByOwner_whenUserNotFound_thenNotFound() throws Exception {
+        when(bookingExportService.exportByOwner(anyLong())).thenThrow(new NotFoundException("Пользователь не найден"));
+
+        mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getBookingById() throws Exception {
         when(bookingService.getBookingById(anyLong())).thenReturn(bookingDtoOut);
@@ -127,6 +177,35 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllByBooker_whenAfterGiven_thenReturnNextCursor() throws Exception {
+        when(bookingService.getAllByBookerAfter(anyString(), anyInt(), anyString(), anyLong()))
+                .thenReturn(List.of(bookingDtoOut));
+
+        mvc.perform(get("/bookings?state=ALL&size=1&after=" + BookingCursor.of(bookingDtoOut).encode())
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(bookingDtoOut).encode()))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(bookingDtoOut))));
+    }
+
+    @Test
+    void approveAll() throws Exception {
+        List<BookingBatchDtoOut> results = List.of(new BookingBatchDtoOut(1L, BookingBatchOutcome.UPDATED),
+                new BookingBatchDtoOut(2L, BookingBatchOutcome.NOT_OWNER));
+        when(bookingService.approveAll(any(), anyLong())).thenReturn(results);
+
+        mvc.perform(patch("/bookings/owner/batch")
+                        .content(objectMapper.writeValueAsString(new BookingBatchDtoIn(List.of(1L, 2L), true)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+    }
+
     @Test
     void saveBookingWithInvalidDates() throws Exception {
         when(bookingService.saveNewBooking(any(), anyLong())).thenThrow(new IllegalArgumentException("Invalid booking dates"));
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingCountersProjection;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingCountersProjectionTest {
+    private final BookingCountersProjection projection = new BookingCountersProjection();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void getByBooker_whenNotCaughtUp_thenEmpty() {
+        projection.apply(event(1L, BookingStatus.WAITING, now.plusDays(1), now.plusDays(2)));
+
+        assertEquals(Optional.empty(), projection.getByBooker(10L));
+    }
+
+    @Test
+    void apply_shouldCountByStatusAndPhase() {
+        projection.advance(now);
+        projection.apply(event(1L, BookingStatus.WAITING, now.plusDays(1), now.plusDays(2)));
+        projection.apply(event(2L, BookingStatus.APPROVED, now.minusDays(1), now.plusDays(1)));
+        projection.apply(event(3L, BookingStatus.APPROVED, now.minusDays(3), now.minusDays(2)));
+        projection.apply(event(1L, BookingStatus.REJECTED, now.plusDays(1), now.plusDays(2)));
+        projection.onCaughtUp();
+
+        assertEquals(new BookingSummaryDto(3L, 1L, 1L, 1L, 0L, 1L), projection.getByBooker(10L).orElseThrow());
+        assertEquals(new BookingSummaryDto(3L, 1L, 1L, 1L, 0L, 1L), projection.getByOwner(20L).orElseThrow());
+        assertEquals(new BookingSummaryDto(0L, 0L, 0L, 0L, 0L, 0L), projection.getByBooker(20L).orElseThrow());
+    }
+
+    @Test
+    void advance_shouldMoveBookingsBetweenPhases() {
+        projection.advance(now);
+        projection.apply(event(1L, BookingStatus.APPROVED, now.plusHours(1), now.plusHours(2)));
+        projection.onCaughtUp();
+
+        projection.advance(now.plusMinutes(90));
+        assertEquals(new BookingSummaryDto(1L, 1L, 0L, 0L, 0L, 0L), projection.getByBooker(10L).orElseThrow());
+
+        projection.advance(now.plusHours(3));
+        assertEquals(new BookingSummaryDto(1L, 0L, 1L, 0L, 0L, 0L), projection.getByBooker(10L).orElseThrow());
+    }
+
+    @Test
+    void advance_whenBookingSettledInPast_thenForgottenButCounted() {
+        projection.advance(now);
+        projection.apply(event(1L, BookingStatus.APPROVED, now.plusHours(1), now.plusHours(2)));
+        projection.apply(event(2L, BookingStatus.WAITING, now.plusHours(1), now.plusHours(2)));
+        projection.apply(event(3L, BookingStatus.REJECTED, now.minusDays(3), now.minusDays(2)));
+        projection.onCaughtUp();
+        assertEquals(2, projection.getTrackedCount());
+
+        projection.advance(now.plusHours(3));
+        assertEquals(1, projection.getTrackedCount());
+
+        projection.apply(event(2L, BookingStatus.REJECTED, now.plusHours(1), now.plusHours(2)));
+        assertEquals(0, projection.getTrackedCount());
+        assertEquals(new BookingSummaryDto(3L, 0L, 3L, 0L, 0L, 2L), projection.getByBooker(10L).orElseThrow());
+    }
+
+    private BookingEvent event(Long bookingId, BookingStatus status, LocalDateTime start, LocalDateTime end) {
+        return BookingEvent.builder().bookingId(bookingId).itemId(5L).bookerId(10L).ownerId(20L).status(status)
+                .start(start).end(end).created(now).build();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
@@ -107,4 +108,16 @@ public class BookingDtoTest {
 
         assertEquals(bookingDto1.hashCode(), bookingDto2.hashCode());
     }
+
+    @Test
+    void cursorShouldSurviveEncodeDecode() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2024, 11, 8, 12, 30, 15, 123_000_000), 42L);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void cursorDecodeShouldRejectGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> BookingCursor.decode("not-a-cursor"));
+    }
 }
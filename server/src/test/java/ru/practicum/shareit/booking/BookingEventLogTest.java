@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class BookingEventLogTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void saveAndApprove_shouldAppendEventsInOrder() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@events.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@events.ru").build());
+        Item item = itemRepository.save(Item.builder().name("item").description("events").available(true)
+                .owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        BookingDtoOut booking = bookingService.saveNewBooking(BookingDtoIn.builder().itemId(item.getId())
+                .start(start).end(start.plusDays(1)).build(), booker.getId());
+        bookingService.approved(booking.getId(), true, owner.getId());
+
+        List<BookingEvent> events = bookingEventRepository.findAllByBookingIdOrderById(booking.getId());
+        assertEquals(List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                events.stream().map(BookingEvent::getStatus).toList());
+        assertTrue(events.get(0).getId() < events.get(1).getId());
+        for (BookingEvent event : events) {
+            assertEquals(item.getId(), event.getItemId());
+            assertEquals(booker.getId(), event.getBookerId());
+            assertEquals(owner.getId(), event.getOwnerId());
+            assertEquals(start, event.getStart());
+        }
+    }
+}
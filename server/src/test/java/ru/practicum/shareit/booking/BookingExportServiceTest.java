@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingExportService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class BookingExportServiceTest {
+    @Autowired
+    private BookingExportService bookingExportService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+    private User booker;
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@export.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@export.ru").build());
+        Item item = itemRepository.save(Item.builder().name("item").description("export").available(true)
+                .owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            bookings.add(bookingRepository.save(Booking.builder().item(item).booker(booker)
+                    .status(BookingStatus.APPROVED).start(start.plusDays(i)).end(start.plusDays(i).plusHours(1))
+                    .build()));
+        }
+    }
+
+    @Test
+    void exportByBooker_shouldWriteOneJsonLinePerBookingNewestFirst() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bookingExportService.exportByBooker(booker.getId()).writeTo(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode booking = objectMapper.readTree(lines[i]);
+            assertEquals(bookings.get(2 - i).getId(), booking.get("id").asLong());
+            assertEquals(bookings.get(2 - i).getStart(),
+                    LocalDateTime.parse(booking.get("start").asText()));
+        }
+    }
+
+    @Test
+    void exportByOwner_shouldExportOwnerBookings() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bookingExportService.exportByOwner(owner.getId()).writeTo(out);
+
+        assertEquals(3, out.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    void exportByBooker_whenUserNotFound_thenThrow() {
+        assertThrows(NotFoundException.class, () -> bookingExportService.exportByBooker(-1L));
+    }
+}
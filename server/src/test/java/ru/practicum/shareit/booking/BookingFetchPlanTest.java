@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BookingFetchPlanTest {
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService requestService;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@fetch.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@fetch.ru").build());
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < 10; i++) {
+            User author = userRepository.save(User.builder().name("author" + i).email("author" + i + "@fetch.ru")
+                    .build());
+            ItemRequest request = requestRepository.save(ItemRequest.builder().description("request" + i)
+                    .requestor(booker).created(LocalDateTime.now()).build());
+            Item item = itemRepository.save(Item.builder().name("item" + i).description("fetch plan")
+                    .available(true).owner(owner).request(request).build());
+            bookingRepository.save(Booking.builder().item(item).booker(booker).status(BookingStatus.APPROVED)
+                    .start(start.plusDays(i)).end(start.plusDays(i).plusHours(1)).build());
+            commentRepository.save(Comment.builder().item(item).author(author).text("comment")
+                    .created(LocalDateTime.now()).build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void bookingLists_shouldRunSameNumberOfStatementsForAnyPageSize() {
+        long small = countStatements(() -> bookingService.getAllByOwner(0, 2, "ALL", owner.getId()));
+        long large = countStatements(() -> bookingService.getAllByOwner(0, 10, "ALL", owner.getId()));
+
+        assertEquals(small, large);
+        assertEquals(small, countStatements(() -> bookingService.getAllByBooker(0, 10, "PAST", booker.getId())));
+    }
+
+    @Test
+    void bookingLists_shouldNotHydrateBookingEntities() {
+        countStatements(() -> bookingService.getAllByOwner(0, 10, "ALL", owner.getId()));
+
+        assertEquals(10, bookingService.getAllByBooker(0, 10, "ALL", booker.getId()).size());
+        assertEquals(0, statistics().getEntityStatistics(Booking.class.getName()).getLoadCount());
+        assertEquals(0, statistics().getEntityStatistics(Item.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void itemLists_shouldRunSameNumberOfStatementsForAnyPageSize() {
+        long small = countStatements(() -> itemService.getItemByOwner(0, 2, owner.getId()));
+        long large = countStatements(() -> itemService.getItemByOwner(0, 10, owner.getId()));
+
+        assertEquals(small, large);
+        assertEquals(countStatements(() -> itemService.getItemBySearch(0, 2, "fetch")),
+                countStatements(() -> itemService.getItemBySearch(0, 10, "fetch")));
+    }
+
+    @Test
+    void requestLists_shouldNotLoadItemsPerRequest() {
+        assertEquals(3, countStatements(() -> requestService.getRequestsByRequestor(booker.getId())));
+    }
+
+    @Test
+    void toStringAndEquals_whenLazyAssociationsNotLoaded_thenNoInitialization() {
+        Long bookingId = bookingRepository.findAll().get(0).getId();
+        Long commentId = commentRepository.findAll().get(0).getId();
+        Long requestId = requestRepository.findAll().get(0).getId();
+        entityManager.clear();
+        Booking booking = entityManager.find(Booking.class, bookingId);
+        Comment comment = entityManager.find(Comment.class, commentId);
+        ItemRequest request = entityManager.find(ItemRequest.class, requestId);
+        Item item = entityManager.find(Item.class, comment.getItem().getId());
+        entityManager.clear();
+
+        assertDoesNotThrow(booking::toString);
+        assertDoesNotThrow(comment::toString);
+        assertDoesNotThrow(request::toString);
+        assertDoesNotThrow(item::toString);
+        Booking reference = entityManager.getReference(Booking.class, bookingId);
+        assertEquals(booking, reference);
+        assertEquals(booking.hashCode(), reference.hashCode());
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingEndedEvent;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void isOverlapping_whenMoreItemsThanLimit_thenLeastRecentlyUsedTreeEvicted() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 2);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(anyLong(), any(), any()))
+                .thenReturn(List.of());
+
+        for (long itemId : new long[]{1, 2, 1, 3, 1, 2}) {
+            index.isOverlapping(itemId, now.plusDays(1), now.plusDays(2));
+        }
+
+        assertEquals(2, index.size());
+        verify(bookingRepository, times(1))
+                .findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any());
+        verify(bookingRepository, times(2))
+                .findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(2L), any(), any());
+    }
+
+    @Test
+    void onBookingUpdated_whenBookingEnded_thenNotKeptInTree() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 10);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(anyLong(), any(), any()))
+                .thenReturn(List.of());
+        index.isOverlapping(1L, now.plusDays(1), now.plusDays(2));
+
+        index.onBookingUpdated(new BookingUpdatedEvent(1L, 1L, now.minusDays(2), now.minusDays(1),
+                BookingStatus.APPROVED));
+        index.onBookingUpdated(new BookingUpdatedEvent(2L, 1L, now.plusDays(1), now.plusDays(2),
+                BookingStatus.APPROVED));
+
+        assertFalse(index.isOverlapping(1L, now.minusDays(2), now.minusDays(1)));
+        assertTrue(index.isOverlapping(1L, now.plusDays(1), now.plusDays(3)));
+    }
+
+    @Test
+    void onBookingUpdated_whenRejectedWhileTreeLoading_thenAppliedAfterLoad() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 10);
+        Thread[] updater = new Thread[1];
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any()))
+                .thenAnswer(invocation -> {
+                    updater[0] = new Thread(() -> index.onBookingUpdated(new BookingUpdatedEvent(10L, 1L,
+                            now.plusDays(1), now.plusDays(2), BookingStatus.REJECTED)));
+                    updater[0].start();
+                    while (updater[0].getState() != Thread.State.BLOCKED
+                            && updater[0].getState() != Thread.State.TERMINATED) {
+                        Thread.onSpinWait();
+                    }
+                    return List.of(Booking.builder().id(10L).start(now.plusDays(1)).end(now.plusDays(2))
+                            .status(BookingStatus.WAITING).build());
+                });
+
+        index.isOverlapping(1L, now.plusDays(5), now.plusDays(6));
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> updater[0].join());
+
+        assertFalse(index.isOverlapping(1L, now.plusDays(1), now.plusDays(2)));
+    }
+
+    @Test
+    void add_whenBookingSaved_thenVisibleBeforeCommitAndDroppedOnRollback() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 10);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(anyLong(), any(), any()))
+                .thenReturn(List.of());
+        assertFalse(index.isOverlapping(1L, now.plusDays(1), now.plusDays(2)));
+
+        index.add(1L, 10L, now.plusDays(1), now.plusDays(2));
+        assertTrue(index.isOverlapping(1L, now.plusDays(1), now.plusDays(3)));
+
+        index.onBookingRolledBack(new BookingUpdatedEvent(10L, 1L, now.plusDays(1), now.plusDays(2),
+                BookingStatus.WAITING));
+        assertFalse(index.isOverlapping(1L, now.plusDays(1), now.plusDays(3)));
+        verify(bookingRepository, times(2))
+                .findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any());
+    }
+
+    @Test
+    void onBookingEnded_thenBookingRemovedFromTree() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 10);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(anyLong(), any(), any()))
+                .thenReturn(List.of(Booking.builder().id(10L).start(now.plusDays(1)).end(now.plusDays(2))
+                        .status(BookingStatus.APPROVED).build()));
+        assertTrue(index.isOverlapping(1L, now.plusDays(1), now.plusDays(2)));
+
+        index.onBookingEnded(new BookingEndedEvent(10L, 1L, now.plusDays(2)));
+
+        assertFalse(index.isOverlapping(1L, now.plusDays(1), now.plusDays(2)));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.event.BookingEndedEvent;
+import ru.practicum.shareit.booking.event.BookingStartedEvent;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingLifecycleScheduler;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLifecycleSchedulerTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookingLifecycleScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BookingLifecycleScheduler(bookingRepository, bookingService, eventPublisher, 1,
+                Duration.ofMinutes(30));
+    }
+
+    @Test
+    void tick_whenWaitingBookingStarted_thenExpire() {
+        scheduler.onBookingUpdated(new BookingUpdatedEvent(1L, 1L, LocalDateTime.now().minusHours(1),
+                LocalDateTime.now().plusHours(1), BookingStatus.WAITING));
+
+        scheduler.tick();
+
+        verify(bookingService).expireWaiting(argThat(view -> view.id() == 1L));
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void onBookingUpdated_whenWaitingTimeoutZero_thenWaitingNotExpired() {
+        BookingLifecycleScheduler withoutExpiry = new BookingLifecycleScheduler(bookingRepository, bookingService,
+                eventPublisher, 1, Duration.ZERO);
+        withoutExpiry.onBookingUpdated(new BookingUpdatedEvent(1L, 1L, LocalDateTime.now().minusHours(1),
+                LocalDateTime.now().plusHours(1), BookingStatus.WAITING));
+
+        withoutExpiry.tick();
+
+        assertEquals(0, withoutExpiry.size());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void tick_whenApprovedBookingStartsAndEnds_thenPublishTransitions() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        scheduler.onBookingUpdated(new BookingUpdatedEvent(1L, 2L, now.plusNanos(20_000_000),
+                now.plusNanos(40_000_000), BookingStatus.APPROVED));
+        assertEquals(2, scheduler.size());
+
+        Thread.sleep(100);
+        scheduler.tick();
+
+        verify(eventPublisher).publishEvent(new BookingStartedEvent(1L, 2L, now.plusNanos(20_000_000)));
+        verify(eventPublisher).publishEvent(new BookingEndedEvent(1L, 2L, now.plusNanos(40_000_000)));
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void onBookingUpdated_whenBookingRejected_thenCancelTimers() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        scheduler.onBookingUpdated(new BookingUpdatedEvent(1L, 1L, start, start.plusDays(1),
+                BookingStatus.APPROVED));
+        scheduler.onBookingUpdated(new BookingUpdatedEvent(1L, 1L, start, start.plusDays(1),
+                BookingStatus.REJECTED));
+
+        scheduler.tick();
+
+        assertEquals(0, scheduler.size());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
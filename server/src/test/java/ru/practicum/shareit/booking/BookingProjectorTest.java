@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingProjection;
+import ru.practicum.shareit.booking.service.BookingProjector;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingProjectorTest {
+    @Mock
+    private BookingEventRepository bookingEventRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private BookingProjection projection;
+
+    @Test
+    void poll_shouldApplyEventsInOrderAndReportCaughtUpOnce() {
+        BookingProjector projector = new BookingProjector(bookingEventRepository, jdbcTemplate, List.of(projection), 2,
+                Duration.ofSeconds(5), Duration.ofMinutes(10));
+        LocalDateTime created = LocalDateTime.now().minusMinutes(1);
+        when(bookingEventRepository.findAllByIdGreaterThanOrderById(eq(0L), any()))
+                .thenReturn(List.of(event(1L, created), event(2L, created)));
+        when(bookingEventRepository.findAllByIdGreaterThanOrderById(eq(2L), any()))
+                .thenReturn(List.of(event(3L, created)));
+
+        projector.poll();
+        projector.poll();
+
+        InOrder inOrder = inOrder(projection);
+        inOrder.verify(projection).apply(event(1L, created));
+        inOrder.verify(projection).apply(event(2L, created));
+        inOrder.verify(projection).apply(event(3L, created));
+        verify(projection, times(1)).onCaughtUp();
+        assertEquals(3L, projector.getPosition());
+    }
+
+    @Test
+    void poll_whenRecentGap_thenWaitForMissingEvent() {
+        BookingProjector projector = new BookingProjector(bookingEventRepository, jdbcTemplate, List.of(projection), 10,
+                Duration.ofSeconds(5), Duration.ofMinutes(10));
+        when(bookingEventRepository.findAllByIdGreaterThanOrderById(eq(0L), any()))
+                .thenReturn(List.of(event(2L, LocalDateTime.now())));
+
+        projector.poll();
+
+        verify(projection, never()).apply(any());
+        assertEquals(0L, projector.getPosition());
+    }
+
+    @Test
+    void poll_whenOldGap_thenDeferMissingIdAndContinue() {
+        BookingProjector projector = new BookingProjector(bookingEventRepository, jdbcTemplate, List.of(projection),
+                10, Duration.ofSeconds(5), Duration.ofMinutes(10));
+        BookingEvent event = event(2L, LocalDateTime.now().minusSeconds(10));
+        when(bookingEventRepository.findAllByIdGreaterThanOrderById(eq(0L), any())).thenReturn(List.of(event));
+
+        projector.poll();
+
+        verify(projection).apply(event);
+        assertEquals(2L, projector.getPosition());
+        assertEquals(1, projector.getPendingCount());
+    }
+
+    @Test
+    void poll_whenEarlierIdCommitsLaterThanGapTimeout_thenAppliedWhenVisible() {
+        BookingProjector projector = new BookingProjector(bookingEventRepository, jdbcTemplate, List.of(projection),
+                10, Duration.ofSeconds(5), Duration.ofMinutes(10));
+        BookingEvent later = event(2L, LocalDateTime.now().minusSeconds(10));
+        BookingEvent earlier = event(1L, LocalDateTime.now().minusSeconds(11));
+        when(bookingEventRepository.findAllByIdGreaterThanOrderById(eq(0L), any())).thenReturn(List.of(later));
+        when(bookingEventRepository.findAllByIdInOrderById(any()))
+                .thenReturn(List.of(), List.of(earlier));
+
+        projector.poll();
+        projector.poll();
+        projector.poll();
+
+        InOrder inOrder = inOrder(projection);
+        inOrder.verify(projection).apply(later);
+        inOrder.verify(projection).apply(earlier);
+        assertEquals(2L, projector.getPosition());
+        assertEquals(0, projector.getPendingCount());
+    }
+
+    @Test
+    void poll_whenTransactionsActiveAtGapFinishedOnPostgres_thenForgetMissingId() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(true);
+        BookingProjector projector = new BookingProjector(bookingEventRepository, jdbcTemplate, List.of(projection),
+                10, Duration.ofSeconds(5), Duration.ofMinutes(10));
+        when(bookingEventRepository.findAllByIdGreaterThanOrderById(eq(0L), any()))
+                .thenReturn(List.of(event(2L, LocalDateTime.now().minusSeconds(10))));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(100L, 99L, 100L);
+
+        projector.poll();
+        projector.poll();
+        assertEquals(1, projector.getPendingCount());
+
+        projector.poll();
+        assertEquals(0, projector.getPendingCount());
+    }
+
+    @Test
+    void poll_whenTransactionsActiveAtGapFinishedOnOtherDatabase_thenKeepCheckingMissingId() {
+        BookingProjector projector = new BookingProjector(bookingEventRepository, jdbcTemplate, List.of(projection),
+                10, Duration.ofSeconds(5), Duration.ofMinutes(10));
+        when(bookingEventRepository.findAllByIdGreaterThanOrderById(eq(0L), any()))
+                .thenReturn(List.of(event(2L, LocalDateTime.now().minusSeconds(10))));
+
+        projector.poll();
+        projector.poll();
+
+        assertEquals(1, projector.getPendingCount());
+        verify(bookingEventRepository).findAllByIdInOrderById(any());
+    }
+
+    @Test
+    void poll_whenPendingOlderThanTimeoutOnOtherDatabase_thenForgetMissingId() {
+        BookingProjector projector = new BookingProjector(bookingEventRepository, jdbcTemplate, List.of(projection),
+                10, Duration.ofSeconds(5), Duration.ZERO);
+        when(bookingEventRepository.findAllByIdGreaterThanOrderById(eq(0L), any()))
+                .thenReturn(List.of(event(2L, LocalDateTime.now().minusSeconds(10))));
+
+        projector.poll();
+        assertEquals(1, projector.getPendingCount());
+
+        projector.poll();
+        assertEquals(0, projector.getPendingCount());
+        verify(bookingEventRepository).findAllByIdInOrderById(any());
+    }
+
+    private BookingEvent event(Long id, LocalDateTime created) {
+        return BookingEvent.builder().id(id).bookingId(id).itemId(1L).bookerId(1L).ownerId(2L)
+                .status(BookingStatus.WAITING).start(created).end(created.plusDays(1)).created(created).build();
+    }
+}
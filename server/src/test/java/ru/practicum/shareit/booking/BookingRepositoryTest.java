@@ -6,6 +6,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
@@ -28,6 +31,8 @@ class BookingRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private BookingReadRepository bookingReadRepository;
 
     private final User user = User.builder()
             .id(null)
@@ -67,10 +72,37 @@ class BookingRepositoryTest {
     @Test
     @DirtiesContext
     void findAllByBookerId() {
-        List<Booking> bookings = bookingRepository.findAllByBookerId(booker.getId(), Pageable.ofSize(10));
+        List<BookingDtoOut> bookings = bookingReadRepository.findAllByBookerId(booker.getId(), Pageable.ofSize(10));
 
         assertThat(bookings.size(), equalTo(1));
         assertThat(bookings.get(0).getId(), equalTo(booking.getId()));
-        assertThat(bookings.get(0), equalTo(booking));
+        assertThat(bookings.get(0), equalTo(BookingMapper.toBookingDtoOut(booking)));
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByBookerIdAndState_whenBookingIsPast_thenFoundOnlyByPast() {
+        assertThat(bookingReadRepository.findAllByBookerIdAndStatePast(booker.getId(), Pageable.ofSize(10)).size(),
+                equalTo(1));
+        assertThat(bookingReadRepository.findAllByBookerIdAndStateCurrent(booker.getId(), Pageable.ofSize(10)).size(),
+                equalTo(0));
+        assertThat(bookingReadRepository.findAllByOwnerIdAndStateFuture(user.getId(), Pageable.ofSize(10)).size(),
+                equalTo(0));
+    }
+
+    @Test
+    @DirtiesContext
+    void summarize_shouldCountEveryStateInOneQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(Booking.builder().start(now.minusDays(1)).end(now.plusDays(1)).item(item)
+                .booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().start(now.plusDays(2)).end(now.plusDays(3)).item(item)
+                .booker(booker).status(BookingStatus.REJECTED).build());
+
+        BookingSummaryDto expected = new BookingSummaryDto(3L, 1L, 1L, 1L, 1L, 1L);
+        assertThat(bookingReadRepository.summarizeByBookerId(booker.getId()), equalTo(expected));
+        assertThat(bookingReadRepository.summarizeByOwnerId(user.getId()), equalTo(expected));
+        assertThat(bookingReadRepository.summarizeByOwnerId(booker.getId()),
+                equalTo(new BookingSummaryDto(0L, 0L, 0L, 0L, 0L, 0L)));
     }
-}
\ No newline at end of file
+}
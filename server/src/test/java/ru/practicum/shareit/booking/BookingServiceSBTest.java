@@ -5,11 +5,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoIn;
+import ru.practicum.shareit.booking.dto.BookingBatchDtoOut;
+import ru.practicum.shareit.booking.dto.BookingBatchOutcome;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.exception.BookingOverlapException;
 import ru.practicum.shareit.exception.ItemIsNotAvailableException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -17,9 +26,13 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @Transactional
@@ -37,6 +50,9 @@ class BookingServiceSBTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
     private User user;
     private User owner;
     private Item item;
@@ -98,6 +114,25 @@ class BookingServiceSBTest {
         assertEquals("Вещь " + item.getName() + " недоступна для брони", exception.getMessage());
     }
 
+    @Test
+    void saveNewBooking_datesOverlap_shouldThrowException() {
+        BookingDtoIn bookingDtoIn = BookingDtoIn.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(3))
+                .build();
+        bookingService.saveNewBooking(bookingDtoIn, user.getId());
+
+        BookingDtoIn overlapping = BookingDtoIn.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(2))
+                .end(LocalDateTime.now().plusDays(4))
+                .build();
+
+        assertThrows(BookingOverlapException.class, () ->
+                bookingService.saveNewBooking(overlapping, user.getId()));
+    }
+
     @Test
     void approved_shouldChangeBookingStatus() {
         BookingDtoIn bookingDtoIn = BookingDtoIn.builder()
@@ -167,5 +202,107 @@ class BookingServiceSBTest {
 
         assertEquals(1, bookings.size());
     }
-}
 
+    @Test
+    void getAllByBooker_whenFromNotMultipleOfSize_thenPageStartsAtFrom() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 1; i <= 5; i++) {
+            bookingService.saveNewBooking(BookingDtoIn.builder()
+                    .itemId(item.getId())
+                    .start(now.plusDays(i * 2))
+                    .end(now.plusDays(i * 2 + 1))
+                    .build(), user.getId());
+        }
+
+        List<BookingDtoOut> all = bookingService.getAllByBooker(0, 10, "ALL", user.getId());
+        List<BookingDtoOut> page = bookingService.getAllByBooker(3, 2, "ALL", user.getId());
+        List<BookingDtoOut> ownerPage = bookingService.getAllByOwner(1, 3, "ALL", owner.getId());
+
+        assertEquals(all.subList(3, 5), page);
+        assertEquals(all.subList(1, 4), ownerPage);
+    }
+
+    @Test
+    void getAllByBookerAndOwner_whenFromOmitted_thenNewestBookingReturnedFirst() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingDtoOut older = bookingService.saveNewBooking(BookingDtoIn.builder()
+                .itemId(item.getId())
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .build(), user.getId());
+        BookingDtoOut newest = bookingService.saveNewBooking(BookingDtoIn.builder()
+                .itemId(item.getId())
+                .start(now.plusDays(3))
+                .end(now.plusDays(4))
+                .build(), user.getId());
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(newest.getId()))
+                .andExpect(jsonPath("$[1].id").value(older.getId()));
+        mvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(newest.getId()));
+    }
+
+    @Test
+    void getAllByBookerAfter_shouldContinueFromCursor() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 1; i <= 5; i++) {
+            bookingService.saveNewBooking(BookingDtoIn.builder()
+                    .itemId(item.getId())
+                    .start(now.plusDays(i * 2))
+                    .end(now.plusDays(i * 2 + 1))
+                    .build(), user.getId());
+        }
+
+        List<BookingDtoOut> firstPage = bookingService.getAllByBooker(0, 2, "ALL", user.getId());
+        String after = BookingCursor.of(firstPage.get(1)).encode();
+        List<BookingDtoOut> secondPage = bookingService.getAllByBookerAfter(after, 2, "FUTURE", user.getId());
+        List<BookingDtoOut> lastPage = bookingService.getAllByOwnerAfter(
+                BookingCursor.of(secondPage.get(1)).encode(), 2, "WAITING", owner.getId());
+
+        assertEquals(2, secondPage.size());
+        assertTrue(secondPage.get(0).getStart().isBefore(firstPage.get(1).getStart()));
+        assertTrue(secondPage.get(1).getStart().isBefore(secondPage.get(0).getStart()));
+        assertEquals(1, lastPage.size());
+    }
+
+    @Test
+    void approveAll_shouldReturnOutcomePerBooking() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Long first = bookingService.saveNewBooking(BookingDtoIn.builder().itemId(item.getId())
+                .start(now.plusDays(1)).end(now.plusDays(2)).build(), user.getId()).getId();
+        Long second = bookingService.saveNewBooking(BookingDtoIn.builder().itemId(item.getId())
+                .start(now.plusDays(3)).end(now.plusDays(4)).build(), user.getId()).getId();
+        bookingService.approved(second, false, owner.getId());
+
+        List<BookingBatchDtoOut> results = bookingService.approveAll(
+                new BookingBatchDtoIn(List.of(first, second, 999L), true), owner.getId());
+        List<BookingBatchDtoOut> foreign = bookingService.approveAll(
+                new BookingBatchDtoIn(List.of(first), true), user.getId());
+
+        assertEquals(List.of(new BookingBatchDtoOut(first, BookingBatchOutcome.UPDATED),
+                new BookingBatchDtoOut(second, BookingBatchOutcome.ALREADY_DECIDED),
+                new BookingBatchDtoOut(999L, BookingBatchOutcome.NOT_FOUND)), results);
+        assertEquals(BookingBatchOutcome.NOT_OWNER, foreign.get(0).getOutcome());
+        assertEquals(BookingStatus.APPROVED, bookingService.getBookingById(first).getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingService.getBookingById(second).getStatus());
+    }
+
+    @Test
+    void expireWaiting_shouldRejectOnlyWaitingBooking() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingDtoOut booking = bookingService.saveNewBooking(BookingDtoIn.builder().itemId(item.getId())
+                .start(now.plusDays(1)).end(now.plusDays(2)).build(), user.getId());
+        BookingStatusView view = new BookingStatusView(booking.getId(), item.getId(), owner.getId(),
+                booking.getStart(), booking.getEnd(), BookingStatus.WAITING);
+
+        assertTrue(bookingService.expireWaiting(view));
+        assertFalse(bookingService.expireWaiting(view));
+        assertEquals(BookingStatus.REJECTED, bookingService.getBookingById(booking.getId()).getStatus());
+    }
+}
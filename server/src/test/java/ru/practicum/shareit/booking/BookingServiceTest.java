@@ -6,12 +6,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingCountersProjection;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingSummaryCache;
+import ru.practicum.shareit.booking.service.ItemLockManager;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -26,6 +33,7 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,12 +41,30 @@ public class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingReadRepository bookingReadRepository;
+
     @Mock
     private ItemRepository itemRepository;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private ItemLockManager itemLockManager;
+
+    @Mock
+    private BookingSummaryCache bookingSummaryCache;
+
+    @Mock
+    private BookingCountersProjection bookingCountersProjection;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -93,6 +119,16 @@ public class BookingServiceTest {
         Assertions.assertEquals(UserMapper.toUserDtoShort(booking.getBooker()), actualBooking.getBooker());
     }
 
+    @Test
+    void saveBooking_whenDatesOverlap_thenThrowException() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.isOverlapping(1L, bookingDtoIn.getStart(), bookingDtoIn.getEnd())).thenReturn(true);
+
+        Assertions.assertThrows(BookingOverlapException.class, () ->
+                bookingService.saveNewBooking(bookingDtoIn, 2L));
+    }
+
     @Test
     void saveBooking_WhenUserNotFound_thenThrowException() {
         Assertions.assertThrows(NotFoundException.class, () ->
@@ -135,10 +171,21 @@ public class BookingServiceTest {
                 bookingService.saveNewBooking(bookingDtoIn, 1L));
     }
 
+    @Test
+    void getSummaryByBooker_whenProjectionReady_thenNoQuery() {
+        BookingSummaryDto summary = new BookingSummaryDto(3L, 1L, 1L, 1L, 0L, 1L);
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(bookingCountersProjection.getByBooker(booker.getId())).thenReturn(Optional.of(summary));
+
+        Assertions.assertEquals(summary, bookingService.getSummaryByBooker(booker.getId()));
+        verifyNoInteractions(bookingSummaryCache, bookingReadRepository);
+    }
+
     @Test
     void approve() {
+        booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.updateWaitingStatusByOwner(List.of(1L), 1L, BookingStatus.APPROVED)).thenReturn(1);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         BookingDtoOut actualBooking = bookingService.approved(1L, true, 1L);
 
@@ -147,7 +194,8 @@ public class BookingServiceTest {
 
     @Test
     void approve_whenBookingNotFound_thenThrowException() {
-        when((bookingRepository).findById(2L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateWaitingStatusByOwner(List.of(2L), 1L, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findStatusViewsByIdIn(List.of(2L))).thenReturn(List.of());
 
         Assertions.assertThrows(NotFoundException.class, () ->
                 bookingService.approved(2L, true, 1L));
@@ -155,13 +203,24 @@ public class BookingServiceTest {
 
     @Test
     void approve_whenItemAlreadyBooked_thenThrowException() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.updateWaitingStatusByOwner(List.of(1L), 1L, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findStatusViewsByIdIn(List.of(1L))).thenReturn(List.of(new BookingStatusView(1L,
+                1L, 1L, booking.getStart(), booking.getEnd(), BookingStatus.APPROVED)));
 
-        Assertions.assertThrows(NotFoundException.class, () ->
+        Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
                 bookingService.approved(1L, true, 1L));
     }
 
+    @Test
+    void approve_whenUserIsNotOwner_thenThrowException() {
+        when(bookingRepository.updateWaitingStatusByOwner(List.of(1L), 2L, BookingStatus.REJECTED)).thenReturn(0);
+        when(bookingRepository.findStatusViewsByIdIn(List.of(1L))).thenReturn(List.of(new BookingStatusView(1L,
+                1L, 1L, booking.getStart(), booking.getEnd(), BookingStatus.WAITING)));
+
+        Assertions.assertThrows(IllegalApproveException.class, () ->
+                bookingService.approved(1L, false, 2L));
+    }
+
     @Test
     void getBookingById_whenUserIsOwner_thenReturnBooking() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
@@ -175,7 +234,8 @@ public class BookingServiceTest {
     @Test
     void getAllByBooker_whenStateAll_thenReturnAllBookings() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByBookerId(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "ALL", 2L);
 
@@ -185,7 +245,8 @@ public class BookingServiceTest {
     @Test
     void getAllByBooker_whenStateCurrent_thenReturnAllBookings() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStateCurrent(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByBookerIdAndStateCurrent(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "CURRENT", 2L);
 
@@ -195,7 +256,8 @@ public class BookingServiceTest {
     @Test
     void getAllByBooker_whenStatePast_thenReturnAllBookings() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatePast(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByBookerIdAndStatePast(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "PAST", 2L);
 
@@ -205,7 +267,8 @@ public class BookingServiceTest {
     @Test
     void getAllByBooker_whenStateFuture_thenReturnAllBookings() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStateFuture(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByBookerIdAndStateFuture(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "FUTURE", 2L);
 
@@ -215,7 +278,8 @@ public class BookingServiceTest {
     @Test
     void getAllByBooker_whenStateWaiting_thenReturnAllBookings() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByBookerIdAndStatus(anyLong(), any(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "WAITING", 2L);
 
@@ -231,7 +295,8 @@ public class BookingServiceTest {
     @Test
     void getAllByOwner_whenStateAll_thenReturnAllBookings() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByOwnerId(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "ALL", 1L);
 
@@ -241,7 +306,8 @@ public class BookingServiceTest {
     @Test
     void getAllByOwner_whenStateCurrent_thenReturnAllBookings() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdAndStateCurrent(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByOwnerIdAndStateCurrent(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "CURRENT", 1L);
 
@@ -251,7 +317,8 @@ public class BookingServiceTest {
     @Test
     void getAllByOwner_whenStatePast_thenReturnAllBookings() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdAndStatePast(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByOwnerIdAndStatePast(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "PAST", 1L);
 
@@ -261,7 +328,8 @@ public class BookingServiceTest {
     @Test
     void getAllByOwner_whenStateFuture_thenReturnAllBookings() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdAndStateFuture(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingReadRepository.findAllByOwnerIdAndStateFuture(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "FUTURE", 1L);
 
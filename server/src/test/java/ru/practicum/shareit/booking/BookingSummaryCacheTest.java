@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.service.BookingSummaryCache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingSummaryCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<BookingSummaryDto> loader = () -> {
+        long count = loads.incrementAndGet();
+        return new BookingSummaryDto(count, 0L, 0L, 0L, 0L, 0L);
+    };
+
+    @Test
+    void get_whenCached_thenLoadOnce() {
+        BookingSummaryCache cache = new BookingSummaryCache(Duration.ofMinutes(1));
+
+        cache.getByBooker(1L, loader);
+        BookingSummaryDto summary = cache.getByBooker(1L, loader);
+
+        assertEquals(1L, summary.getAll());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_whenEvicted_thenReload() {
+        BookingSummaryCache cache = new BookingSummaryCache(Duration.ofMinutes(1));
+        cache.getByBooker(1L, loader);
+        cache.getByOwner(2L, loader);
+        cache.getByOwner(3L, loader);
+
+        cache.evict(1L, 2L);
+
+        assertEquals(4L, cache.getByBooker(1L, loader).getAll());
+        assertEquals(5L, cache.getByOwner(2L, loader).getAll());
+        assertEquals(3L, cache.getByOwner(3L, loader).getAll());
+
+        cache.evictAll();
+
+        assertEquals(6L, cache.getByOwner(3L, loader).getAll());
+    }
+
+    @Test
+    void get_whenTtlIsZero_thenAlwaysLoad() {
+        BookingSummaryCache cache = new BookingSummaryCache(Duration.ZERO);
+
+        cache.getByBooker(1L, loader);
+        cache.getByBooker(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.service.IntervalTree;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+    private final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void findOverlap_whenIntervalsIntersect_thenReturnBookingId() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1L, base, base.plusDays(2));
+        tree.put(2L, base.plusDays(5), base.plusDays(7));
+
+        assertEquals(2L, tree.findOverlap(base.plusDays(6), base.plusDays(8)));
+        assertEquals(1L, tree.findOverlap(base.minusDays(1), base.plusDays(1)));
+    }
+
+    @Test
+    void findOverlap_whenIntervalsOnlyTouch_thenReturnNull() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1L, base, base.plusDays(2));
+
+        assertNull(tree.findOverlap(base.plusDays(2), base.plusDays(3)));
+        assertNull(tree.findOverlap(base.minusDays(1), base));
+    }
+
+    @Test
+    void remove_whenBookingRemoved_thenNoOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1L, base, base.plusDays(2));
+        tree.remove(1L);
+
+        assertNull(tree.findOverlap(base, base.plusDays(1)));
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void put_whenManyIntervals_thenFindsEveryOne() {
+        IntervalTree tree = new IntervalTree();
+        for (long i = 0; i < 10_000; i++) {
+            tree.put(i, base.plusHours(i * 2), base.plusHours(i * 2 + 1));
+        }
+        for (long i = 0; i < 10_000; i += 2) {
+            tree.remove(i);
+        }
+
+        assertEquals(5_000, tree.size());
+        for (long i = 0; i < 10_000; i++) {
+            Long found = tree.findOverlap(base.plusHours(i * 2), base.plusHours(i * 2 + 1));
+            if (i % 2 == 0) {
+                assertNull(found);
+            } else {
+                assertEquals(i, found);
+            }
+        }
+        assertNull(tree.findOverlap(base.plusHours(1), base.plusHours(2)));
+    }
+
+    @Test
+    void removeEndedBy_shouldDropOnlyEndedIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1L, base, base.plusDays(1));
+        tree.put(2L, base.plusDays(1), base.plusDays(3));
+        tree.put(3L, base.plusHours(12), base.plusDays(2));
+        tree.put(4L, base.plusDays(4), base.plusDays(5));
+
+        assertEquals(2, tree.removeEndedBy(base.plusDays(2)));
+
+        assertEquals(2, tree.size());
+        assertNull(tree.findOverlap(base, base.plusDays(1)));
+        assertEquals(2L, tree.findOverlap(base.plusDays(2), base.plusDays(3)));
+        assertEquals(4L, tree.findOverlap(base.plusDays(4), base.plusDays(5)));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.service.ItemLockManager;
+import ru.practicum.shareit.exception.LockTimeoutException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemLockManagerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemLockManager lockManager = new ItemLockManager(meterRegistry, 1024, 200);
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        complete();
+    }
+
+    @Test
+    void lockUntilCompletion_whenSameItemLocked_thenWaitForTransactionEnd() throws Exception {
+        lockManager.lockUntilCompletion(1L);
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<Void> contender = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            started.countDown();
+            try {
+                lockManager.lockUntilCompletion(1L);
+            } finally {
+                complete();
+            }
+        });
+        started.await();
+        Thread.sleep(50);
+        assertFalse(contender.isDone());
+
+        complete();
+        TransactionSynchronizationManager.initSynchronization();
+        contender.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lockUntilCompletion_whenOtherItemLocked_thenDoNotWait() throws Exception {
+        lockManager.lockUntilCompletion(1L);
+
+        CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                lockManager.lockUntilCompletion(2L);
+            } finally {
+                complete();
+            }
+        }).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lockUntilCompletion_whenLockNotReleased_thenThrowAndCountTimeout() {
+        lockManager.lockUntilCompletion(1L);
+
+        CompletableFuture<Void> contender = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                lockManager.lockUntilCompletion(1L);
+            } finally {
+                complete();
+            }
+        });
+
+        Exception e = assertThrows(Exception.class, contender::join);
+        assertInstanceOf(LockTimeoutException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.counter("shareit.booking.item.lock.timeouts").count());
+        assertEquals(2, meterRegistry.timer("shareit.booking.item.lock.wait").count());
+    }
+
+    @Test
+    void lockUntilCompletion_whenNoTransaction_thenThrow() {
+        complete();
+
+        assertThrows(IllegalStateException.class, () -> lockManager.lockUntilCompletion(1L));
+    }
+
+    private static void complete() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.service.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_whenDeadlinePassed_thenReturnPayload() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, START);
+        wheel.schedule(START + 25, "a");
+        wheel.schedule(START + 5_000, "b");
+
+        assertEquals(List.of(), wheel.advance(START + 19));
+        assertEquals(List.of("a"), wheel.advance(START + 30));
+        assertEquals(List.of("b"), wheel.advance(START + 5_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_whenDeadlineInPast_thenFireOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, START);
+        wheel.schedule(START - 1_000, "late");
+
+        assertEquals(List.of("late"), wheel.advance(START));
+    }
+
+    @Test
+    void cancel_whenTimerCancelled_thenNotFired() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, START);
+        TimingWheel.Timer<String> timer = wheel.schedule(START + 100_000, "a");
+
+        assertTrue(timer.cancel());
+        assertFalse(timer.cancel());
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), wheel.advance(START + 200_000));
+    }
+
+    @Test
+    void advance_whenTimersOnAllLevels_thenFireEachInItsTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = (long) Math.pow(2, random.nextInt(30)) + random.nextInt(1000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        long now = 0;
+        int fired = 0;
+        while (wheel.size() > 0) {
+            long previous = now;
+            now += 1 + random.nextInt(5_000_000);
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline > previous && deadline <= now, "Таймер " + deadline + " сработал в " + now);
+                fired++;
+            }
+        }
+        assertEquals(deadlines.size(), fired);
+    }
+}
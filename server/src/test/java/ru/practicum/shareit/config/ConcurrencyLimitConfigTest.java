@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ConcurrencyLimitConfigTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(DataSource.class, () -> mock(DataSource.class))
+            .withBean(ObjectMapper.class)
+            .withUserConfiguration(ConcurrencyLimitConfig.class);
+
+    @Test
+    void filter_whenPlatformThreads_thenNotRegistered() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(FilterRegistrationBean.class));
+    }
+
+    @Test
+    void filter_whenVirtualThreads_thenRegistered() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(FilterRegistrationBean.class));
+    }
+
+    @Test
+    void filter_whenVirtualThreadsAndLimitDisabled_thenNotRegistered() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true", "shareit.concurrency.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(FilterRegistrationBean.class));
+    }
+}
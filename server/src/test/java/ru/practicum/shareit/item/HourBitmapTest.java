@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.service.HourBitmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HourBitmapTest {
+    private static final long BASE = 480_000;
+
+    @Test
+    void set_whenRangeSpansWords_thenAllHoursMarked() {
+        HourBitmap bitmap = new HourBitmap();
+        bitmap.set(BASE + 60, BASE + 200);
+
+        assertFalse(bitmap.get(BASE + 59));
+        assertTrue(bitmap.get(BASE + 60));
+        assertTrue(bitmap.get(BASE + 128));
+        assertTrue(bitmap.get(BASE + 199));
+        assertFalse(bitmap.get(BASE + 200));
+        assertEquals(4, bitmap.wordCount());
+    }
+
+    @Test
+    void nextSetHour_whenGapBetweenRuns_thenSkipToNextRun() {
+        HourBitmap bitmap = new HourBitmap();
+        bitmap.set(BASE + 10, BASE + 12);
+        bitmap.set(BASE + 1000, BASE + 1001);
+
+        assertEquals(BASE + 10, bitmap.nextSetHour(BASE));
+        assertEquals(BASE + 11, bitmap.nextSetHour(BASE + 11));
+        assertEquals(BASE + 1000, bitmap.nextSetHour(BASE + 12));
+        assertEquals(-1, bitmap.nextSetHour(BASE + 1001));
+    }
+
+    @Test
+    void nextClearHour_whenRunEndsOnWordBoundary_thenReturnBoundary() {
+        HourBitmap bitmap = new HourBitmap();
+        bitmap.set(BASE, BASE + 64);
+
+        assertEquals(BASE + 64, bitmap.nextClearHour(BASE + 3));
+        assertEquals(BASE - 1, bitmap.nextClearHour(BASE - 1));
+    }
+
+    @Test
+    void clear_whenWordBecomesEmpty_thenWordDropped() {
+        HourBitmap bitmap = new HourBitmap();
+        bitmap.set(BASE + 10, BASE + 80);
+        bitmap.clear(BASE + 10, BASE + 70);
+
+        assertEquals(1, bitmap.wordCount());
+        assertEquals(BASE + 70, bitmap.nextSetHour(BASE));
+        bitmap.clear(BASE, BASE + 200);
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void set_whenManyScatteredHours_thenKeptSorted() {
+        HourBitmap bitmap = new HourBitmap();
+        for (long hour = BASE + 64 * 40; hour >= BASE; hour -= 64) {
+            bitmap.set(hour, hour + 1);
+        }
+
+        long hour = bitmap.nextSetHour(0);
+        for (int i = 0; i <= 40; i++) {
+            assertEquals(BASE + 64L * i, hour);
+            hour = bitmap.nextSetHour(hour + 1);
+        }
+        assertEquals(-1, hour);
+    }
+}
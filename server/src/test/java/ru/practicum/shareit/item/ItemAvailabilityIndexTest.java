@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingUpdatedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+    private final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final LocalDateTime to = from.plusDays(3);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
+    @Test
+    void getAvailability_whenBookingInside_thenBusyAtBookingBounds() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any()))
+                .thenReturn(List.of(booking(10L, from.plusHours(25).plusMinutes(30),
+                        from.plusHours(27).plusMinutes(15))));
+
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusHours(25).plusMinutes(30), true),
+                new AvailabilityIntervalDto(from.plusHours(25).plusMinutes(30), from.plusHours(27).plusMinutes(15),
+                        false),
+                new AvailabilityIntervalDto(from.plusHours(27).plusMinutes(15), to, true)),
+                itemAvailabilityIndex.getAvailability(1L, from, to));
+    }
+
+    @Test
+    void getAvailability_whenBookingCrossesRange_thenBusyClipped() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any()))
+                .thenReturn(List.of(booking(10L, from.minusDays(1), from.plusHours(5))));
+
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from.plusMinutes(30), from.plusHours(5), false),
+                new AvailabilityIntervalDto(from.plusHours(5), to, true)),
+                itemAvailabilityIndex.getAvailability(1L, from.plusMinutes(30), to));
+    }
+
+    @Test
+    void getAvailability_whenBookingEndsInFirstHourBeforeRange_thenRangeFree() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any()))
+                .thenReturn(List.of(booking(10L, from.plusHours(10), from.plusHours(10).plusMinutes(15))));
+
+        assertEquals(List.of(new AvailabilityIntervalDto(from.plusHours(10).plusMinutes(30), from.plusHours(12),
+                        true)),
+                itemAvailabilityIndex.getAvailability(1L, from.plusHours(10).plusMinutes(30), from.plusHours(12)));
+    }
+
+    @Test
+    void getAvailability_whenBookingStartsInLastHourAfterRange_thenRangeFree() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any()))
+                .thenReturn(List.of(booking(10L, from.plusHours(20).plusMinutes(45), from.plusHours(21))));
+
+        assertEquals(List.of(new AvailabilityIntervalDto(from.plusHours(19), from.plusHours(20).plusMinutes(30),
+                        true)),
+                itemAvailabilityIndex.getAvailability(1L, from.plusHours(19), from.plusHours(20).plusMinutes(30)));
+    }
+
+    @Test
+    void getAvailability_whenBookingsTouchBothEdgeHoursOutsideRange_thenOnlyInsideBookingBusy() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any()))
+                .thenReturn(List.of(booking(10L, from.plusHours(9), from.plusHours(10).plusMinutes(15)),
+                        booking(11L, from.plusHours(12), from.plusHours(12).plusMinutes(30)),
+                        booking(12L, from.plusHours(14).plusMinutes(45), from.plusHours(15))));
+
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from.plusHours(10).plusMinutes(30), from.plusHours(12), true),
+                new AvailabilityIntervalDto(from.plusHours(12), from.plusHours(12).plusMinutes(30), false),
+                new AvailabilityIntervalDto(from.plusHours(12).plusMinutes(30), from.plusHours(14).plusMinutes(30),
+                        true)),
+                itemAvailabilityIndex.getAvailability(1L, from.plusHours(10).plusMinutes(30),
+                        from.plusHours(14).plusMinutes(30)));
+    }
+
+    @Test
+    void onBookingUpdated_whenApprovedAndRejected_thenCalendarUpdatedWithoutReload() {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any()))
+                .thenReturn(List.of(booking(10L, from.plusHours(2), from.plusHours(3).plusMinutes(30))));
+        itemAvailabilityIndex.getAvailability(1L, from, to);
+
+        itemAvailabilityIndex.onBookingUpdated(new BookingUpdatedEvent(11L, 1L, from.plusHours(3).plusMinutes(45),
+                from.plusHours(5), BookingStatus.APPROVED));
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusHours(2), true),
+                new AvailabilityIntervalDto(from.plusHours(2), from.plusHours(5), false),
+                new AvailabilityIntervalDto(from.plusHours(5), to, true)),
+                itemAvailabilityIndex.getAvailability(1L, from, to));
+
+        itemAvailabilityIndex.onBookingUpdated(new BookingUpdatedEvent(10L, 1L, from.plusHours(2),
+                from.plusHours(3).plusMinutes(30), BookingStatus.REJECTED));
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusHours(3).plusMinutes(45), true),
+                new AvailabilityIntervalDto(from.plusHours(3).plusMinutes(45), from.plusHours(5), false),
+                new AvailabilityIntervalDto(from.plusHours(5), to, true)),
+                itemAvailabilityIndex.getAvailability(1L, from, to));
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(anyLong(), any(),
+                any());
+    }
+
+    @Test
+    void apply_whenCaughtUp_thenServedFromJournalWithoutLoading() {
+        itemAvailabilityIndex.apply(BookingEvent.builder().id(1L).bookingId(10L).itemId(1L).bookerId(2L).ownerId(3L)
+                .status(BookingStatus.APPROVED).start(from.plusHours(1)).end(from.plusHours(2)).created(from)
+                .build());
+        itemAvailabilityIndex.onCaughtUp();
+
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusHours(1), true),
+                new AvailabilityIntervalDto(from.plusHours(1), from.plusHours(2), false),
+                new AvailabilityIntervalDto(from.plusHours(2), to, true)),
+                itemAvailabilityIndex.getAvailability(1L, from, to));
+        assertEquals(List.of(new AvailabilityIntervalDto(from, to, true)),
+                itemAvailabilityIndex.getAvailability(2L, from, to));
+        verify(bookingRepository, never()).findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(anyLong(), any(),
+                any());
+    }
+
+    @Test
+    void onBookingUpdated_whenCalendarLoading_thenAppliedAfterLoad() {
+        Thread[] updater = new Thread[1];
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfterAndArchivedFalse(eq(1L), any(), any()))
+                .thenAnswer(invocation -> {
+                    updater[0] = new Thread(() -> itemAvailabilityIndex.onBookingUpdated(new BookingUpdatedEvent(
+                            11L, 1L, from.plusHours(1), from.plusHours(2), BookingStatus.APPROVED)));
+                    updater[0].start();
+                    while (updater[0].getState() != Thread.State.BLOCKED
+                            && updater[0].getState() != Thread.State.TERMINATED) {
+                        Thread.onSpinWait();
+                    }
+                    return List.of();
+                });
+
+        itemAvailabilityIndex.getAvailability(1L, from, to);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> updater[0].join());
+
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusHours(1), true),
+                new AvailabilityIntervalDto(from.plusHours(1), from.plusHours(2), false),
+                new AvailabilityIntervalDto(from.plusHours(2), to, true)),
+                itemAvailabilityIndex.getAvailability(1L, from, to));
+    }
+
+    @Test
+    void advance_whenBookingsEnded_thenProjectedCalendarsPruned() {
+        itemAvailabilityIndex.apply(event(1L, 10L, 1L, from.plusHours(1), from.plusHours(2)));
+        itemAvailabilityIndex.apply(event(2L, 11L, 2L, from.plusHours(1), from.plusHours(2)));
+        itemAvailabilityIndex.apply(event(3L, 12L, 2L, from.plusDays(2), from.plusDays(2).plusHours(3)));
+        itemAvailabilityIndex.onCaughtUp();
+
+        itemAvailabilityIndex.advance(from.plusDays(1));
+
+        assertEquals(1, itemAvailabilityIndex.size());
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusDays(2), true),
+                new AvailabilityIntervalDto(from.plusDays(2), from.plusDays(2).plusHours(3), false),
+                new AvailabilityIntervalDto(from.plusDays(2).plusHours(3), to, true)),
+                itemAvailabilityIndex.getAvailability(2L, from, to));
+    }
+
+    private BookingEvent event(Long id, Long bookingId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingEvent.builder().id(id).bookingId(bookingId).itemId(itemId).bookerId(2L).ownerId(3L)
+                .status(BookingStatus.APPROVED).start(start).end(end).created(from).build();
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().id(id).start(start).end(end).status(BookingStatus.APPROVED).build();
+    }
+}
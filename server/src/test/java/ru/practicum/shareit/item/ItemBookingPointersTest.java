@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointers;
+import ru.practicum.shareit.item.service.ItemBookingRollover;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@Transactional
+class ItemBookingPointersTest {
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@pointers.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@pointers.ru").build());
+        item = itemRepository.save(Item.builder().name("item").description("pointers").available(true)
+                .owner(owner).build());
+    }
+
+    @Test
+    void approved_shouldUpdateLastAndNextBookings() {
+        Booking past = saveWaiting(now.minusDays(3));
+        Booking future = saveWaiting(now.plusDays(3));
+        Booking later = saveWaiting(now.plusDays(6));
+
+        bookingService.approved(later.getId(), true, owner.getId());
+        bookingService.approved(past.getId(), true, owner.getId());
+        bookingService.approved(future.getId(), true, owner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(past.getId(), stored.getLastBooking().getId());
+        assertEquals(future.getId(), stored.getNextBooking().getId());
+        ItemDtoOut itemDtoOut = itemService.getItemById(item.getId(), owner.getId());
+        assertEquals(past.getId(), itemDtoOut.getLastBooking().getId());
+        assertEquals(booker.getId(), itemDtoOut.getNextBooking().getBookerId());
+    }
+
+    @Test
+    void rejected_shouldNotChangePointers() {
+        Booking future = saveWaiting(now.plusDays(3));
+
+        bookingService.approved(future.getId(), false, owner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+        assertNull(stored.getLastBooking());
+        assertNull(stored.getNextBooking());
+    }
+
+    @Test
+    void rollover_whenNextBookingStarted_thenItBecomesLast() {
+        Booking first = saveWaiting(now.plusDays(3));
+        Booking second = saveWaiting(now.plusDays(6));
+        bookingService.approved(first.getId(), true, owner.getId());
+        bookingService.approved(second.getId(), true, owner.getId());
+        entityManager.flush();
+        entityManager.createQuery("UPDATE Booking b SET b.start = ?1 WHERE b.id = ?2")
+                .setParameter(1, now.minusHours(1))
+                .setParameter(2, first.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        new ItemBookingRollover(itemRepository, itemBookingPointers).rollover();
+        entityManager.flush();
+        entityManager.clear();
+
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(first.getId(), stored.getLastBooking().getId());
+        assertEquals(second.getId(), stored.getNextBooking().getId());
+    }
+
+    @Test
+    void schema_shouldNotReferenceBookingsByForeignKey() {
+        Number foreignKeys = (Number) entityManager.createNativeQuery("SELECT count(*) " +
+                        "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE k " +
+                        "JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS r ON r.CONSTRAINT_NAME = k.CONSTRAINT_NAME " +
+                        "WHERE k.TABLE_NAME = 'ITEMS' AND k.COLUMN_NAME IN ('LAST_BOOKING_ID', 'NEXT_BOOKING_ID')")
+                .getSingleResult();
+
+        assertEquals(0, foreignKeys.intValue());
+    }
+
+    private Booking saveWaiting(LocalDateTime start) {
+        return bookingRepository.save(Booking.builder().item(item).booker(booker).status(BookingStatus.WAITING)
+                .start(start).end(start.plusDays(1)).build());
+    }
+}
@@ -10,7 +10,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDtoShort;
 
@@ -171,4 +173,78 @@ public class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("[]"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemService.getAvailability(1L, from, to)).thenReturn(List.of(
+                new AvailabilityIntervalDto(from, from.plusDays(1), true),
+                new AvailabilityIntervalDto(from.plusDays(1), to, false)));
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].free", is(true)))
+                .andExpect(jsonPath("$[1].start", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$[1].free", is(false)));
+    }
+
+    @Test
+    void getItemsBySearch_whenDatesGiven_thenSearchAvailable() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemService.getAvailableItemBySearch(0, 10, "a", start, start.plusDays(1)))
+                .thenReturn(List.of(itemDtoOut));
+
+        mvc.perform(get("/items/search")
+                        .param("text", "a")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("start", "2030-01-01T00:00:00")
+                        .param("end", "2030-01-02T00:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemDtoOut.getId()), Long.class));
+    }
+
+    @Test
+    void getItemsBySearch_whenFuzzyGiven_thenFuzzySearch() throws Exception {
+        when(itemService.getItemByFuzzySearch(0, 10, "дрелъ", 1)).thenReturn(List.of(itemDtoOut));
+
+        mvc.perform(get("/items/search")
+                        .param("text", "дрелъ")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("fuzzy", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemDtoOut.getId()), Long.class));
+    }
+
+    @Test
+    void getItemsBySearch_whenFuzzyWithDates_thenBadRequest() throws Exception {
+        mvc.perform(get("/items/search")
+                        .param("text", "дрелъ")
+                        .param("fuzzy", "1")
+                        .param("start", "2030-01-01T00:00:00")
+                        .param("end", "2030-01-02T00:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSuggestions_shouldReturnSuggestions() throws Exception {
+        when(itemService.getSuggestions("дре", 10)).thenReturn(List.of(new ItemSuggestionDto(1L, "Дрель")));
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1L), Long.class))
+                .andExpect(jsonPath("$[0].name", is("Дрель")));
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.service.ItemInvertedIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ItemInvertedIndexTest {
+    private final ItemInvertedIndex index = new ItemInvertedIndex();
+
+    @Test
+    void search_shouldMatchAllStemsInIdOrder() {
+        index.put(3L, "Дрель ударная", "мощная", true);
+        index.put(1L, "Шуруповёрт", "аккумуляторная дрель", true);
+        index.put(2L, "Дрель", "без ударного режима", false);
+        index.put(4L, "Пила", "ударная", true);
+
+        assertEquals(List.of(1L, 3L), index.search("дрели", 0, 10));
+        assertEquals(List.of(3L), index.search("ударную дрель", 0, 10));
+        assertEquals(List.of(3L), index.search("дрель", 1, 10));
+        assertEquals(List.of(), index.search("дрель лобзик", 0, 10));
+        assertEquals(List.of(), index.search("!!!", 0, 10));
+    }
+
+    @Test
+    void put_whenItemChanged_thenOldTermsRemoved() {
+        index.put(1L, "Палатка", "туристическая", true);
+        index.put(1L, "Палатка", "детская", true);
+
+        assertEquals(List.of(), index.search("туристическая", 0, 10));
+        assertEquals(List.of(1L), index.search("детские палатки", 0, 10));
+
+        index.put(1L, "Палатка", "детская", false);
+        assertEquals(List.of(), index.search("палатка", 0, 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void load_whenItemChangedWhileLoading_thenLoadedRowSkipped() {
+        index.put(1L, "Велосипед", "новый", true);
+        index.load(1L, "Велосипед", "старый");
+        index.load(2L, "Самокат", "старый");
+        index.markReady();
+
+        assertEquals(List.of(1L), index.search("новый", 0, 10));
+        assertEquals(List.of(2L), index.search("старый", 0, 10));
+    }
+
+    @Test
+    void expand_shouldFindTermsWithinEditDistance() {
+        index.put(1L, "дрель", "", true);
+        index.put(2L, "дрова", "", true);
+        index.put(3L, "пила", "", true);
+        index.put(4L, "дренаж", "", true);
+
+        assertEquals(List.of("дрел"), index.expand("дрелъ", 1));
+        assertEquals(List.of("дрел", "дров"), index.expand("древ", 1));
+        assertEquals(List.of(), index.expand("лобзик", 2));
+    }
+
+    @Test
+    void search_whenFuzzy_thenToleratesTyposInEachWord() {
+        index.put(1L, "Дрель ударная", "мощная", true);
+        index.put(2L, "Пила", "ударная", true);
+
+        assertEquals(List.of(), index.search("дрелъ", 0, 10));
+        assertEquals(List.of(1L), index.search("дрелъ", 1, 0, 10));
+        assertEquals(List.of(1L, 2L), index.search("удрная", 1, 0, 10));
+        assertEquals(List.of(1L), index.search("удрная дрелъ", 1, 0, 10));
+        assertEquals(List.of(), index.search("пмла", 2, 0, 10));
+    }
+
+    @Test
+    void put_whenIdExceedsIntRange_thenIndexClearedAndNeverReady() {
+        index.load(1L, "Дрель", "ударная");
+        index.put(Integer.MAX_VALUE + 1L, "Дрель", "новая", true);
+        index.markReady();
+
+        assertFalse(index.isReady());
+        assertEquals(0, index.size());
+        index.put(2L, "Дрель", "старая", true);
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.service.ItemNameTrie;
+import ru.practicum.shareit.item.service.ItemNameTrie.Entry;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemNameTrieTest {
+    private final ItemNameTrie trie = new ItemNameTrie(2);
+
+    private final Entry drill = new Entry(1L, "Дрель ударная", 5);
+    private final Entry tent = new Entry(2L, "Палатка", 1);
+    private final Entry drillSet = new Entry(3L, "Набор для дрели", 7);
+    private final Entry dryer = new Entry(4L, "Дровокол", 0);
+
+    @Test
+    void suggest_shouldReturnBestByWeightForEveryWordStart() {
+        List.of(drill, tent, drillSet, dryer).forEach(trie::add);
+
+        assertEquals(List.of(drillSet, drill), trie.suggest("Др", 10));
+        assertEquals(List.of(drill), trie.suggest("дрель", 10));
+        assertEquals(List.of(drill), trie.suggest("уда", 10));
+        assertEquals(List.of(drill), trie.suggest("ДРЕЛЬ   УД", 10));
+        assertEquals(List.of(dryer), trie.suggest("дро", 10));
+        assertEquals(List.of(drillSet), trie.suggest("дрели", 1));
+        assertEquals(List.of(), trie.suggest("дрелька", 10));
+        assertEquals(List.of(), trie.suggest("ель", 10));
+    }
+
+    @Test
+    void suggest_whenNameHasYo_thenMatchedByE() {
+        Entry screwdriver = new Entry(5L, "Шуруповёрт", 0);
+        trie.add(screwdriver);
+
+        assertEquals(List.of(screwdriver), trie.suggest("шуруповер", 10));
+    }
+
+    @Test
+    void remove_shouldRestoreTopAndMergeNodes() {
+        trie.add(tent);
+        int nodes = trie.nodeCount();
+        List.of(drill, drillSet, dryer).forEach(trie::add);
+
+        trie.remove(drillSet);
+        assertEquals(List.of(drill, dryer), trie.suggest("д", 10));
+
+        trie.remove(drill);
+        trie.remove(dryer);
+        assertEquals(List.of(), trie.suggest("д", 10));
+        assertEquals(List.of(tent), trie.suggest("", 10));
+        assertEquals(nodes, trie.nodeCount());
+    }
+
+    @Test
+    void add_whenSameItemUnderSeveralWords_thenSuggestedOnce() {
+        Entry drillDriver = new Entry(6L, "Дрель дрель", 1);
+        trie.add(drillDriver);
+
+        assertEquals(List.of(drillDriver), trie.suggest("дрель", 10));
+    }
+}
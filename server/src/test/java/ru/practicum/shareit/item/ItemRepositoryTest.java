@@ -4,13 +4,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemSuggestSource;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -22,6 +28,8 @@ public class ItemRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
 
     private final User user = User.builder()
             .id(null)
@@ -52,4 +60,75 @@ public class ItemRepositoryTest {
         assertThat(items.get(0).getName(), equalTo(item.getName()));
         assertThat(items.size(), equalTo(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void search_whenNameMatchesButItemUnavailable_thenExcludedAndNameMatchesFirst() {
+        itemRepository.save(Item.builder().name("broken").description("useless").available(false)
+                .owner(user).build());
+        Item byDescription = itemRepository.save(Item.builder().name("tool").description("cool drill")
+                .available(true).owner(user).build());
+        Item byName = itemRepository.save(Item.builder().name("drill").description("cool").available(true)
+                .owner(user).build());
+
+        assertThat(itemRepository.search("drill", Pageable.ofSize(10)).stream().map(Item::getId).toList(),
+                equalTo(List.of(byName.getId(), byDescription.getId())));
+        assertThat(itemRepository.search("broken", Pageable.ofSize(10)).size(), equalTo(0));
+    }
+
+    @Test
+    void searchByTrigram_shouldMatchWordFragmentsOfAvailableItems() {
+        itemRepository.save(Item.builder().name("Дрель сломанная").description("без батареи").available(false)
+                .owner(user).build());
+        Item byDescription = itemRepository.save(Item.builder().name("Шуруповёрт").description("Аккумуляторная дрель")
+                .available(true).owner(user).build());
+        Item byName = itemRepository.save(Item.builder().name("Дрель ударная").description("сетевая")
+                .available(true).owner(user).build());
+
+        assertThat(itemRepository.searchByTrigram("дрел", Pageable.ofSize(10)).stream().map(Item::getId).toList(),
+                equalTo(List.of(byName.getId(), byDescription.getId())));
+        assertThat(itemRepository.searchByTrigram("аккум", Pageable.ofSize(10)).stream().map(Item::getId).toList(),
+                equalTo(List.of(byDescription.getId())));
+    }
+
+    @Test
+    void searchAvailable_whenApprovedBookingOverlaps_thenItemExcluded() {
+        User booker = userRepository.save(User.builder().email("booker@mail.ru").name("booker").build());
+        Item free = itemRepository.save(Item.builder().name("item free").description("cool").available(true)
+                .owner(user).build());
+        itemRepository.save(Item.builder().name("item hidden").description("cool").available(false)
+                .owner(user).build());
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        bookingRepository.save(Booking.builder().item(item).booker(booker).owner(user)
+                .status(BookingStatus.APPROVED).start(start).end(start.plusDays(2)).build());
+        bookingRepository.save(Booking.builder().item(free).booker(booker).owner(user)
+                .status(BookingStatus.REJECTED).start(start).end(start.plusDays(2)).build());
+
+        List<Item> overlapping = itemRepository.searchAvailable("item", start.plusDays(1), start.plusDays(3),
+                Pageable.ofSize(10));
+        List<Item> touching = itemRepository.searchAvailable("item", start.plusDays(2), start.plusDays(3),
+                Pageable.ofSize(10));
+
+        assertThat(overlapping.stream().map(Item::getId).toList(), equalTo(List.of(free.getId())));
+        assertThat(touching.size(), equalTo(2));
+    }
+
+    @Test
+    @DirtiesContext
+    void findSuggestSources_shouldCountNotRejectedBookingsOfAvailableItems() {
+        User booker = userRepository.save(User.builder().email("booker@mail.ru").name("booker").build());
+        Item popular = itemRepository.save(Item.builder().name("drill").description("cool").available(true)
+                .owner(user).build());
+        itemRepository.save(Item.builder().name("hidden").description("cool").available(false)
+                .owner(user).build());
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        for (BookingStatus status : BookingStatus.values()) {
+            bookingRepository.save(Booking.builder().item(popular).booker(booker).owner(user)
+                    .status(status).start(start).end(start.plusDays(1)).build());
+        }
+
+        assertThat(itemRepository.findSuggestSources(0L, Limit.of(10)), equalTo(List.of(
+                new ItemSuggestSource(item.getId(), "item", 0L),
+                new ItemSuggestSource(popular.getId(), "drill", 2L))));
+        assertThat(itemRepository.findSuggestSources(item.getId(), Limit.of(10)).size(), equalTo(1));
+    }
+}
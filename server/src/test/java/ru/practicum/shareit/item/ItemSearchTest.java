@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemInvertedIndex;
+import ru.practicum.shareit.item.service.ItemSearch;
+import ru.practicum.shareit.item.service.ItemSearchMode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ItemInvertedIndex itemInvertedIndex;
+
+    private final Pageable page = Pageable.ofSize(10);
+    private final List<Item> items = List.of(Item.builder().id(1L).name("дрель").build());
+
+    @Test
+    void search_whenFulltextMode_thenUseTsvectorQuery() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex,
+                ItemSearchMode.FULLTEXT, 0.6, 2, false);
+        when(itemRepository.search("дрел", page)).thenReturn(items);
+
+        assertEquals(items, itemSearch.search("дрел", page));
+        verify(itemRepository, never()).searchByTrigram(any(), any());
+    }
+
+    @Test
+    void search_whenTrigramModeOnPostgres_thenSetThresholdAndUseTrigramQuery() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(true);
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex,
+                ItemSearchMode.TRIGRAM, 0.4, 2, false);
+        when(itemRepository.searchByTrigram("дрел", page)).thenReturn(items);
+
+        assertEquals(items, itemSearch.search("дрел", page));
+        verify(jdbcTemplate).queryForObject(anyString(), eq(String.class), eq("0.4"));
+        verify(itemRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void search_whenTrigramModeOnOtherDatabase_thenNoThreshold() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex,
+                ItemSearchMode.TRIGRAM, 0.4, 2, false);
+
+        itemSearch.search("дрел", page);
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(String.class), any(Object[].class));
+        verify(itemRepository).searchByTrigram("дрел", page);
+    }
+
+    @Test
+    void search_whenIndexModeAndIndexReady_thenLoadOnlyPageOfIds() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex, ItemSearchMode.INDEX,
+                0.6, 2, false);
+        when(itemInvertedIndex.isReady()).thenReturn(true);
+        when(itemInvertedIndex.search("дрель", 20, 10)).thenReturn(List.of(1L));
+        when(itemRepository.findAllByIdInAndAvailableTrueOrderById(List.of(1L))).thenReturn(items);
+
+        assertEquals(items, itemSearch.search("дрель", Pageable.ofSize(10).withPage(2)));
+        verify(itemRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void search_whenIndexModeAndIndexNotReady_thenFallBackToFulltext() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex, ItemSearchMode.INDEX,
+                0.6, 2, false);
+        when(itemRepository.search("дрель", page)).thenReturn(items);
+
+        assertEquals(items, itemSearch.search("дрель", page));
+    }
+
+    @Test
+    void searchAvailable_whenIndexMode_thenCheckCandidatesInBatches() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex, ItemSearchMode.INDEX,
+                0.6, 2, false);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Item second = Item.builder().id(2L).build();
+        Item fourth = Item.builder().id(4L).build();
+        when(itemInvertedIndex.isReady()).thenReturn(true);
+        when(itemInvertedIndex.search("дрель", 0, 2)).thenReturn(List.of(1L, 2L));
+        when(itemInvertedIndex.search("дрель", 2, 2)).thenReturn(List.of(3L, 4L));
+        when(itemRepository.findAllFreeByIdIn(List.of(1L, 2L), start, start.plusDays(1))).thenReturn(List.of(second));
+        when(itemRepository.findAllFreeByIdIn(List.of(3L, 4L), start, start.plusDays(1))).thenReturn(List.of(fourth));
+
+        assertEquals(List.of(second, fourth), itemSearch.searchAvailable("дрель", start, start.plusDays(1),
+                Pageable.ofSize(2)));
+    }
+
+    @Test
+    void buildIndex_shouldLoadAvailableItemsInBatches() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex, ItemSearchMode.INDEX,
+                0.6, 2, false);
+        when(itemRepository.findSearchDocuments(eq(0L), any())).thenReturn(List.of(
+                new ItemSearchDocument(1L, "дрель", "ударная"), new ItemSearchDocument(5L, "пила", "цепная")));
+        when(itemRepository.findSearchDocuments(eq(5L), any())).thenReturn(List.of(
+                new ItemSearchDocument(7L, "лобзик", "новый")));
+
+        itemSearch.buildIndex();
+
+        verify(itemInvertedIndex).load(1L, "дрель", "ударная");
+        verify(itemInvertedIndex).load(7L, "лобзик", "новый");
+        verify(itemInvertedIndex).markReady();
+    }
+
+    @Test
+    void buildIndex_whenFulltextModeAndFuzzyDisabled_thenIndexNotBuilt() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex,
+                ItemSearchMode.FULLTEXT, 0.6, 2, false);
+
+        itemSearch.buildIndex();
+        itemSearch.index(Item.builder().id(3L).name("дрель").description("ударная").available(true).build());
+
+        verify(itemRepository, never()).findSearchDocuments(anyLong(), any());
+        verify(itemInvertedIndex, never()).markReady();
+        verify(itemInvertedIndex, never()).put(anyLong(), anyString(), anyString(), anyBoolean());
+    }
+
+    @Test
+    void index_whenNoTransaction_thenPutImmediately() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex, ItemSearchMode.INDEX,
+                0.6, 2, false);
+
+        itemSearch.index(Item.builder().id(3L).name("дрель").description("ударная").available(true).build());
+
+        verify(itemInvertedIndex).put(3L, "дрель", "ударная", true);
+    }
+
+    @Test
+    void searchFuzzy_whenIndexReady_thenSearchWithEdits() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex,
+                ItemSearchMode.FULLTEXT, 0.6, 2, true);
+        when(itemInvertedIndex.isReady()).thenReturn(true);
+        when(itemInvertedIndex.search("дрелъ", 1, 0, 10)).thenReturn(List.of(1L));
+        when(itemRepository.findAllByIdInAndAvailableTrueOrderById(List.of(1L))).thenReturn(items);
+
+        assertEquals(items, itemSearch.searchFuzzy("дрелъ", 1, page));
+        verify(itemRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void searchFuzzy_whenFuzzyDisabled_thenExactSearch() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex,
+                ItemSearchMode.FULLTEXT, 0.6, 2, false);
+        when(itemRepository.search("дрелъ", page)).thenReturn(List.of());
+
+        assertEquals(List.of(), itemSearch.searchFuzzy("дрелъ", 1, page));
+        verify(itemInvertedIndex, never()).search(anyString(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void index_whenFuzzyEnabledInFulltextMode_thenIndexMaintained() {
+        ItemSearch itemSearch = new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex,
+                ItemSearchMode.FULLTEXT, 0.6, 2, true);
+
+        itemSearch.index(Item.builder().id(3L).name("дрель").description("ударная").available(false).build());
+
+        verify(itemInvertedIndex).put(3L, "дрель", "ударная", false);
+    }
+
+    @Test
+    void create_whenThresholdOutOfRange_thenThrows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ItemSearch(itemRepository, jdbcTemplate, itemInvertedIndex, ItemSearchMode.TRIGRAM, 0,
+                        2, false));
+    }
+}
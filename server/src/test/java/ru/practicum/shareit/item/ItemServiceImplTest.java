@@ -14,17 +14,24 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.NotBookerException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
+import ru.practicum.shareit.exception.WrongDateException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
 import ru.practicum.shareit.item.comment.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDtoIn;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.service.ItemNameTrie;
+import ru.practicum.shareit.item.service.ItemSearch;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemSuggester;
 import ru.practicum.shareit.user.dto.UserDtoShort;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -49,6 +56,12 @@ class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @Mock
+    private ItemSearch itemSearch;
+    @Mock
+    private ItemSuggester itemSuggester;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -97,14 +110,6 @@ class ItemServiceImplTest {
             .author(user)
             .created(LocalDateTime.of(2023, 7, 1, 12, 12, 12))
             .build();
-    private final Booking booking = Booking.builder()
-            .id(id)
-            .start(null)
-            .end(null)
-            .item(item)
-            .booker(user)
-            .status(BookingStatus.WAITING)
-            .build();
 
     @Test
     void saveNewItem_whenUserFound_thenSavedItem() {
@@ -115,6 +120,7 @@ class ItemServiceImplTest {
 
         Assertions.assertEquals(ItemMapper.toItemDtoOut(item), actualItemDto);
         Assertions.assertNull(item.getRequest());
+        verify(itemSearch).index(item);
     }
 
     @Test
@@ -140,6 +146,7 @@ class ItemServiceImplTest {
         ItemDtoOut actualItemDto = itemService.update(id, itemDtoIn, id);
 
         Assertions.assertEquals(itemDtoOut, actualItemDto);
+        verify(itemSearch).index(item);
     }
 
     @Test
@@ -152,20 +159,39 @@ class ItemServiceImplTest {
 
     @Test
     void getItemById_whenItemFound_thenReturnedItem() {
-        when(bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(bookingRepository.findFirstByItemIdAndStartAfterAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Optional.of(booking));
+        Booking lastBooking = approvedBooking(2L, LocalDateTime.now().minusDays(2));
+        Booking nextBooking = approvedBooking(3L, LocalDateTime.now().plusDays(2));
+        item.setLastBooking(lastBooking);
+        item.setNextBooking(nextBooking);
         when(commentRepository.findAllByItemId(id)).thenReturn(List.of(comment));
         when(itemRepository.findById(id)).thenReturn(Optional.of(item));
         final ItemDtoOut itemDto = ItemMapper.toItemDtoOut(item);
-        itemDto.setLastBooking(BookingMapper.toBookingDto(booking));
-        itemDto.setNextBooking(BookingMapper.toBookingDto(booking));
+        itemDto.setLastBooking(BookingMapper.toBookingDto(lastBooking));
+        itemDto.setNextBooking(BookingMapper.toBookingDto(nextBooking));
         itemDto.setComments(List.of(CommentMapper.toCommentDtoOut(comment)));
 
         ItemDtoOut actualItemDto = itemService.getItemById(id, id);
 
         Assertions.assertEquals(itemDto, actualItemDto);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getItemById_whenNextBookingStarted_thenLiveBookingsWithoutPointerRefresh() {
+        Booking startedBooking = approvedBooking(3L, LocalDateTime.now().minusHours(1));
+        item.setNextBooking(startedBooking);
+        when(itemRepository.findById(id)).thenReturn(Optional.of(item));
+        when(bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(eq(id), any(),
+                eq(BookingStatus.APPROVED), any())).thenReturn(Optional.of(startedBooking));
+        when(bookingRepository.findFirstByItemIdAndStartAfterAndStatus(eq(id), any(), eq(BookingStatus.APPROVED),
+                any())).thenReturn(Optional.empty());
+
+        ItemDtoOut actualItemDto = itemService.getItemById(id, id);
+
+        Assertions.assertEquals(BookingMapper.toBookingDto(startedBooking), actualItemDto.getLastBooking());
+        Assertions.assertNull(actualItemDto.getNextBooking());
+        Assertions.assertEquals(startedBooking, item.getNextBooking());
+        verify(itemRepository, never()).findByIdForUpdate(any());
     }
 
     @Test
@@ -175,6 +201,45 @@ class ItemServiceImplTest {
         Assertions.assertThrows(NotFoundException.class, () -> itemService.getItemById(2L, id));
     }
 
+    @Test
+    void getAvailability_whenRangeStartsInPast_thenClampedToNow() {
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        List<AvailabilityIntervalDto> intervals = List.of(new AvailabilityIntervalDto(to.minusDays(1), to, true));
+        when(itemRepository.existsById(id)).thenReturn(true);
+        when(itemAvailabilityIndex.getAvailability(eq(id), any(), eq(to))).thenReturn(intervals);
+
+        Assertions.assertEquals(intervals, itemService.getAvailability(id, to.minusDays(3), to));
+        verify(itemAvailabilityIndex).getAvailability(eq(id),
+                argThat(from -> from.isAfter(to.minusDays(2))), eq(to));
+    }
+
+    @Test
+    void getAvailability_whenRangeInPast_thenReturnEmptyList() {
+        LocalDateTime to = LocalDateTime.now().minusDays(1);
+        when(itemRepository.existsById(id)).thenReturn(true);
+
+        Assertions.assertTrue(itemService.getAvailability(id, to.minusDays(1), to).isEmpty());
+        verifyNoInteractions(itemAvailabilityIndex);
+    }
+
+    @Test
+    void getAvailability_whenRangeInvalid_thenExceptionThrown() {
+        LocalDateTime from = LocalDateTime.now();
+
+        Assertions.assertThrows(WrongDateException.class, () -> itemService.getAvailability(id, from, from));
+        Assertions.assertThrows(WrongDateException.class,
+                () -> itemService.getAvailability(id, from, from.plusDays(400)));
+    }
+
+    @Test
+    void getAvailability_whenItemNotFound_thenExceptionThrown() {
+        LocalDateTime from = LocalDateTime.now();
+        when(itemRepository.existsById(2L)).thenReturn(false);
+
+        Assertions.assertThrows(NotFoundException.class,
+                () -> itemService.getAvailability(2L, from, from.plusDays(1)));
+    }
+
     @Test
     void getItemsByOwner_CorrectArgumentsForPaging_thenReturnItems() {
         when(userRepository.findById(id)).thenReturn(Optional.of(user));
@@ -190,13 +255,13 @@ class ItemServiceImplTest {
 
     @Test
     void getItemBySearch_whenTextNotBlank_thenReturnItems() {
-        when(itemRepository.search(any(), any())).thenReturn(List.of(item));
+        when(itemSearch.search(any(), any())).thenReturn(List.of(item));
 
         List<ItemDtoOut> targetItems = itemService.getItemBySearch(0, 10, "abc");
 
         Assertions.assertNotNull(targetItems);
         Assertions.assertEquals(1, targetItems.size());
-        verify(itemRepository, times(1))
+        verify(itemSearch, times(1))
                 .search(any(), any());
     }
 
@@ -206,7 +271,7 @@ class ItemServiceImplTest {
 
         Assertions.assertTrue(targetItems.isEmpty());
         Assertions.assertEquals(0, targetItems.size());
-        verify(itemRepository, never()).search(any(), any());
+        verify(itemSearch, never()).search(any(), any());
     }
 
     @Test
@@ -294,15 +359,38 @@ class ItemServiceImplTest {
                 itemService.saveComment(id, new CommentDtoIn("abc"), id));
     }
 
+    @Test
+    void getAvailableItemBySearch_whenDatesValid_thenReturnItems() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemSearch.searchAvailable(eq("abc"), eq(start), eq(start.plusDays(1)), any()))
+                .thenReturn(List.of(item));
+
+        List<ItemDtoOut> targetItems = itemService.getAvailableItemBySearch(0, 10, "abc", start,
+                start.plusDays(1));
+
+        Assertions.assertEquals(List.of(ItemMapper.toItemDtoOut(item)), targetItems);
+    }
+
+    @Test
+    void getAvailableItemBySearch_whenDatesInvalid_thenExceptionThrown() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        Assertions.assertThrows(WrongDateException.class,
+                () -> itemService.getAvailableItemBySearch(0, 10, "abc", start, null));
+        Assertions.assertThrows(WrongDateException.class,
+                () -> itemService.getAvailableItemBySearch(0, 10, "abc", start, start.minusHours(1)));
+        verify(itemSearch, never()).searchAvailable(any(), any(), any(), any());
+    }
+
     @Test
     void getItemBySearch_whenNoItemsFound_thenReturnEmptyList() {
-        when(itemRepository.search(any(), any())).thenReturn(Collections.emptyList());
+        when(itemSearch.search(any(), any())).thenReturn(Collections.emptyList());
 
         List<ItemDtoOut> targetItems = itemService.getItemBySearch(0, 10, "nonexistent");
 
         Assertions.assertTrue(targetItems.isEmpty());
         Assertions.assertEquals(0, targetItems.size());
-        verify(itemRepository, times(1)).search(any(), any());
+        verify(itemSearch, times(1)).search(any(), any());
     }
 
     @Test
@@ -316,4 +404,46 @@ class ItemServiceImplTest {
         Assertions.assertTrue(targetItems.isEmpty());
         verify(itemRepository, times(1)).findAllByOwnerId(anyLong(), any());
     }
+
+    private Booking approvedBooking(Long bookingId, LocalDateTime start) {
+        return Booking.builder()
+                .id(bookingId)
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(notOwner)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    @Test
+    void getItemByFuzzySearch_whenFuzzyValid_thenSearchWithEdits() {
+        when(itemSearch.searchFuzzy(eq("дрелъ"), eq(2), any())).thenReturn(List.of(item));
+
+        List<ItemDtoOut> targetItems = itemService.getItemByFuzzySearch(0, 10, "дрелъ", 2);
+
+        Assertions.assertEquals(List.of(ItemMapper.toItemDtoOut(item)), targetItems);
+    }
+
+    @Test
+    void getItemByFuzzySearch_whenFuzzyOutOfRange_thenThrows() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> itemService.getItemByFuzzySearch(0, 10, "дрелъ", 3));
+        verify(itemSearch, never()).searchFuzzy(any(), anyInt(), any());
+    }
+
+    @Test
+    void getSuggestions_whenPrefixGiven_thenSuggestionsFromTrie() {
+        when(itemSuggester.suggest("дре", 5)).thenReturn(List.of(new ItemNameTrie.Entry(id, "Дрель", 3)));
+
+        List<ItemSuggestionDto> suggestions = itemService.getSuggestions("дре", 5);
+
+        Assertions.assertEquals(List.of(new ItemSuggestionDto(id, "Дрель")), suggestions);
+    }
+
+    @Test
+    void getSuggestions_whenSizeOutOfRange_thenThrows() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> itemService.getSuggestions("дре", 11));
+        verify(itemSuggester, never()).suggest(any(), anyInt());
+    }
 }
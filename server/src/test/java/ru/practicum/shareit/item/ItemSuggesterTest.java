@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemSuggestSource;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemNameTrie.Entry;
+import ru.practicum.shareit.item.service.ItemSuggester;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSuggesterTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void rebuild_shouldLoadAllBatchesOrderedByBookings() {
+        ItemSuggester suggester = new ItemSuggester(itemRepository, 2);
+        when(itemRepository.findSuggestSources(0L, Limit.of(2))).thenReturn(List.of(
+                new ItemSuggestSource(1L, "Дрель", 1L),
+                new ItemSuggestSource(2L, "Дровокол", 4L)));
+        when(itemRepository.findSuggestSources(2L, Limit.of(2))).thenReturn(List.of(
+                new ItemSuggestSource(3L, "Дрель-миксер", 2L)));
+
+        suggester.rebuild();
+
+        assertEquals(List.of(new Entry(2L, "Дровокол", 4), new Entry(3L, "Дрель-миксер", 2),
+                new Entry(1L, "Дрель", 1)), suggester.suggest("др", 10));
+    }
+
+    @Test
+    void put_shouldKeepWeightAndDropUnavailable() {
+        ItemSuggester suggester = new ItemSuggester(itemRepository, 10);
+        when(itemRepository.findSuggestSources(0L, Limit.of(10))).thenReturn(List.of(
+                new ItemSuggestSource(1L, "Дрель", 3L)));
+        suggester.rebuild();
+
+        suggester.put(Item.builder().id(1L).name("Перфоратор").available(true).build());
+        suggester.put(Item.builder().id(2L).name("Палатка").available(true).build());
+
+        assertEquals(List.of(), suggester.suggest("дрель", 10));
+        assertEquals(List.of(new Entry(1L, "Перфоратор", 3), new Entry(2L, "Палатка", 0)),
+                suggester.suggest("п", 10));
+
+        suggester.put(Item.builder().id(1L).name("Перфоратор").available(false).build());
+        assertEquals(List.of(new Entry(2L, "Палатка", 0)), suggester.suggest("п", 10));
+    }
+}
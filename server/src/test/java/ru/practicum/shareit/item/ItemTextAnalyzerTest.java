@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.service.ItemTextAnalyzer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemTextAnalyzerTest {
+    @Test
+    void stem_shouldReduceRussianWordFormsToOneStem() {
+        for (String word : List.of("дрель", "дрели", "дрелью", "дрелей")) {
+            assertEquals("дрел", ItemTextAnalyzer.stem(word), word);
+        }
+        assertEquals(ItemTextAnalyzer.stem("аккумулятор"), ItemTextAnalyzer.stem("аккумуляторы"));
+        assertEquals(ItemTextAnalyzer.stem("палатка"), ItemTextAnalyzer.stem("палатки"));
+        assertEquals(ItemTextAnalyzer.stem("ударная"), ItemTextAnalyzer.stem("ударной"));
+    }
+
+    @Test
+    void stem_shouldReduceEnglishWordForms() {
+        assertEquals("drill", ItemTextAnalyzer.stem("drills"));
+        assertEquals("drill", ItemTextAnalyzer.stem("drilling"));
+        assertEquals("batteri", ItemTextAnalyzer.stem("batteries"));
+        assertEquals("batteri", ItemTextAnalyzer.stem("battery"));
+    }
+
+    @Test
+    void terms_shouldSplitLowercaseAndDeduplicate() {
+        assertEquals(List.of("ежик", "дрел", "2000w"), ItemTextAnalyzer.terms("Ёжик, ДРЕЛЬ-дрели 2000W!"));
+    }
+}
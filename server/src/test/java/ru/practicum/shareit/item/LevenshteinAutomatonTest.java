@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.service.LevenshteinAutomaton;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LevenshteinAutomatonTest {
+    @Test
+    void isMatch_shouldAgreeWithEditDistance() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            String word = randomWord(random);
+            String candidate = randomWord(random);
+            int maxEdits = 1 + random.nextInt(2);
+
+            assertEquals(distance(word, candidate) <= maxEdits, accepts(word, maxEdits, candidate),
+                    word + " / " + candidate + " / " + maxEdits);
+        }
+    }
+
+    @Test
+    void canMatch_shouldStopOnHopelessPrefix() {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton("дрель", 1);
+        int[] state = automaton.start();
+        for (char c : "пил".toCharArray()) {
+            state = automaton.step(state, c);
+        }
+
+        assertEquals(false, automaton.canMatch(state));
+        assertEquals(true, accepts("дрель", 1, "дрелъ"));
+        assertEquals(true, accepts("дрель", 1, "дрел"));
+        assertEquals(false, accepts("дрель", 1, "дрл"));
+    }
+
+    private boolean accepts(String word, int maxEdits, String candidate) {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(word, maxEdits);
+        int[] state = automaton.start();
+        for (char c : candidate.toCharArray()) {
+            state = automaton.step(state, c);
+        }
+        return automaton.isMatch(state);
+    }
+
+    private String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private int distance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    d[i][j] = i + j;
+                } else {
+                    d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
+                            d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1));
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
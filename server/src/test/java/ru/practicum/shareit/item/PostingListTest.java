@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.service.PostingList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingListTest {
+    @Test
+    void add_shouldKeepIdsSortedAndUnique() {
+        PostingList list = new PostingList();
+        for (int id : new int[]{5, 9, 100, 7, 1, 9}) {
+            list.add(id);
+        }
+
+        assertEquals(List.of(1, 5, 7, 9, 100), ids(list));
+    }
+
+    @Test
+    void remove_shouldDropIdAndKeepFollowingIds() {
+        PostingList list = new PostingList();
+        for (int id = 1; id <= 5; id++) {
+            list.add(id * 10);
+        }
+
+        assertTrue(list.remove(30));
+        assertFalse(list.remove(35));
+        assertEquals(List.of(10, 20, 40, 50), ids(list));
+        list.add(60);
+        assertEquals(List.of(10, 20, 40, 50, 60), ids(list));
+    }
+
+    @Test
+    void seek_shouldReturnFirstIdNotLessThanTarget() {
+        PostingList list = new PostingList();
+        for (int id : new int[]{3, 8, 15}) {
+            list.add(id);
+        }
+        PostingList.Cursor cursor = list.cursor();
+
+        assertEquals(8, cursor.seek(4));
+        assertEquals(8, cursor.seek(8));
+        assertEquals(15, cursor.next());
+        assertEquals(-1, cursor.seek(16));
+    }
+
+    @Test
+    void addAndRemove_acrossManyBlocks_shouldMatchSortedSet() {
+        PostingList list = new PostingList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(5_000) + 1;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), list.remove(id));
+            } else {
+                list.add(id);
+                expected.add(id);
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        assertEquals(new ArrayList<>(expected), ids(list));
+    }
+
+    @Test
+    void seek_whenTargetInLaterBlock_thenSkipsToIt() {
+        PostingList list = new PostingList();
+        for (int id = 1; id <= 1_000; id++) {
+            list.add(id * 2);
+        }
+        PostingList.Cursor cursor = list.cursor();
+
+        assertEquals(2, cursor.next());
+        assertEquals(1_500, cursor.seek(1_499));
+        assertEquals(1_502, cursor.next());
+        assertEquals(2_000, cursor.seek(2_000));
+        assertEquals(-1, cursor.next());
+    }
+
+    private List<Integer> ids(PostingList list) {
+        List<Integer> ids = new ArrayList<>();
+        PostingList.Cursor cursor = list.cursor();
+        for (int id = cursor.next(); id >= 0; id = cursor.next()) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -43,11 +43,11 @@ class ItemRequestRepositoryTest {
             .email("user2@mail.ru")
             .name("user2")
             .build();
-    private final Item item = new Item(null, "item", "nice item", true, user, null);
+    private final Item item = new Item(null, "item", "nice item", true, user, null, null, null);
     private final Booking booking = new Booking(1L,
             LocalDateTime.of(2023, 7, 1, 12, 12, 12),
             LocalDateTime.of(2023, 7, 30, 12, 12, 12),
-            item, requestor, BookingStatus.WAITING);
+            item, requestor, BookingStatus.WAITING, user, false);
     private final ItemRequest request = new ItemRequest(1L, "description", requestor, LocalDateTime.now());
 
     @BeforeEach
@@ -77,7 +77,7 @@ class ItemRequestServiceTest {
     void getRequestsByRequestor_whenUserFound_thenSavedRequest() {
         when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
         when(requestRepository.findAllByRequestorId(anyLong(), any())).thenReturn(List.of(request));
-        when(itemRepository.findAllByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findAllByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
         final ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toItemRequestDtoOut(request);
         requestDtoOut.setItems(List.of(ItemMapper.toItemDtoOut(item)));
 